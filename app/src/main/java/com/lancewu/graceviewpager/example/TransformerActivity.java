@@ -11,7 +11,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
-import com.lancewu.graceviewpager.GracePageTransformer;
+import com.lancewu.graceviewpager.GraceDirtyCheckedPageTransformer;
 import com.lancewu.graceviewpager.GracePagerAdapter;
 import com.lancewu.graceviewpager.GraceViewPagerSupport;
 
@@ -124,7 +124,7 @@ public class TransformerActivity extends AppCompatActivity implements View.OnCli
         return (int) (dpValue * scale + 0.5f);
     }
 
-    private class Transformer extends GracePageTransformer {
+    private class Transformer extends GraceDirtyCheckedPageTransformer {
 
         private static final float SCALE = 0.9f;
 
@@ -133,16 +133,14 @@ public class TransformerActivity extends AppCompatActivity implements View.OnCli
         }
 
         @Override
-        public void transformPageWithCorrectPosition(@NonNull View page, float position) {
+        protected void onTransformPage(@NonNull View page, float position, @NonNull Transform transform) {
             if (position >= -1 && position <= 1) {
                 // [-1,1]，中间以及相邻的页面，一般相邻的才会用于计算动画
                 float scale = SCALE + (1 - SCALE) * (1 - Math.abs(position));
-                page.setScaleX(scale);
-                page.setScaleY(scale);
+                transform.setScale(scale);
             } else {
                 // [-Infinity,-1)、(1,+Infinity]，超出相邻的范围
-                page.setScaleX(SCALE);
-                page.setScaleY(SCALE);
+                transform.setScale(SCALE);
             }
         }
 
@@ -0,0 +1,116 @@
+package com.lancewu.graceviewpager;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.widget.FrameLayout;
+
+import com.lancewu.graceviewpager.transformer.GraceCoverFlowPageTransformer;
+import com.lancewu.graceviewpager.transformer.GraceDepthPageTransformer;
+import com.lancewu.graceviewpager.transformer.GraceParallaxPageTransformer;
+import com.lancewu.graceviewpager.transformer.GraceScalePageTransformer;
+import com.lancewu.graceviewpager.transformer.GraceZoomOutPageTransformer;
+import com.lancewu.graceviewpager.util.GraceEasingTable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * 内置页面动画每帧的耗时：模拟一次滑动，每帧对所有存活页面做一次动画，结果输出到logcat
+ */
+@RunWith(AndroidJUnit4.class)
+public class GracePageTransformerBenchmark {
+
+    private static final String TAG = "GraceTransformerBench";
+    // 存活页面数量：offscreenPageLimit为2时
+    private static final int PAGE_COUNT = 5;
+    // 一次滑动的帧数
+    private static final int FRAMES = 60;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+    private static final int PAGE_WIDTH = 1080;
+    private static final int PAGE_HEIGHT = 1920;
+    private static final int[] PARALLAX_CHILD_IDS = {1, 2};
+
+    @Test
+    public void benchmarkTransformers() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                GracePagePositionProvider provider = new PositionProvider();
+                GraceCoverFlowPageTransformer easedCoverFlow = new GraceCoverFlowPageTransformer(provider);
+                easedCoverFlow.setEasingTable(new GraceEasingTable(new AccelerateDecelerateInterpolator()));
+                benchmark("Scale", new GraceScalePageTransformer(provider));
+                benchmark("Depth", new GraceDepthPageTransformer(provider));
+                benchmark("ZoomOut", new GraceZoomOutPageTransformer(provider));
+                benchmark("CoverFlow", new GraceCoverFlowPageTransformer(provider));
+                benchmark("CoverFlow+EasingTable", easedCoverFlow);
+                benchmark("Parallax", new GraceParallaxPageTransformer(provider, PARALLAX_CHILD_IDS,
+                        new float[]{0.3f, 0.6f}));
+            }
+        });
+    }
+
+    private static void benchmark(String name, GracePageTransformer transformer) {
+        View[] pages = createPages(InstrumentationRegistry.getTargetContext());
+        float[] positions = new float[PAGE_COUNT];
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            swipe(transformer, pages, positions);
+        }
+        long minNs = Long.MAX_VALUE;
+        long totalNs = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long ns = swipe(transformer, pages, positions);
+            minNs = Math.min(minNs, ns);
+            totalNs += ns;
+        }
+        Log.i(TAG, name + " pages=" + PAGE_COUNT
+                + " perFrameMin=" + minNs / FRAMES + "ns perFrameAvg=" + totalNs / ROUNDS / FRAMES + "ns");
+    }
+
+    // 当前页面从中间滑到下一页，返回所有帧的总耗时
+    private static long swipe(GracePageTransformer transformer, View[] pages, float[] positions) {
+        long startNs = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            float offset = (float) frame / FRAMES;
+            for (int i = 0; i < PAGE_COUNT; i++) {
+                positions[i] = i - PAGE_COUNT / 2 - offset;
+            }
+            transformer.transformPagesWithCorrectPosition(pages, positions, PAGE_COUNT);
+        }
+        return System.nanoTime() - startNs;
+    }
+
+    private static View[] createPages(Context context) {
+        View[] pages = new View[PAGE_COUNT];
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            FrameLayout page = new FrameLayout(context);
+            for (int childId : PARALLAX_CHILD_IDS) {
+                View child = new View(context);
+                child.setId(childId);
+                page.addView(child);
+            }
+            page.layout(0, 0, PAGE_WIDTH, PAGE_HEIGHT);
+            pages[i] = page;
+        }
+        return pages;
+    }
+
+    // 直接调用修正后的动画方法，不经过adapter查找位置
+    private static class PositionProvider implements GracePagePositionProvider {
+
+        @Override
+        public int getPageViewPosition(@NonNull View page) {
+            return 0;
+        }
+
+        @Override
+        public boolean isDataSetChanging() {
+            return false;
+        }
+    }
+}
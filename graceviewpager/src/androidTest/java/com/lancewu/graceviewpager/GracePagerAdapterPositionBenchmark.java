@@ -0,0 +1,115 @@
+package com.lancewu.graceviewpager;
+
+import android.content.Context;
+import android.database.DataSetObserver;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 数据刷新时GracePagerAdapter查找存活页面新索引的耗时，与逐个indexOf()对比，结果输出到logcat
+ */
+@RunWith(AndroidJUnit4.class)
+public class GracePagerAdapterPositionBenchmark {
+
+    private static final String TAG = "GracePositionBenchmark";
+    private static final int[] SIZES = {100, 1000, 10000, 100000};
+    // 存活页面数量：offscreenPageLimit为1、3、7时
+    private static final int[] ALIVE_PAGE_COUNTS = {3, 7, 15};
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void benchmarkDataSetChanged() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int size : SIZES) {
+                    for (int alivePageCount : ALIVE_PAGE_COUNTS) {
+                        benchmark(size, alivePageCount);
+                    }
+                }
+            }
+        });
+    }
+
+    private static void benchmark(int size, int alivePageCount) {
+        Context context = InstrumentationRegistry.getTargetContext();
+        FrameLayout container = new FrameLayout(context);
+        final List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add("item" + i);
+        }
+        final Adapter adapter = new Adapter(items);
+        // 当前页面在中间
+        final List<Object> pages = new ArrayList<>(alivePageCount);
+        final List<String> alive = new ArrayList<>(alivePageCount);
+        int first = (size - alivePageCount) / 2;
+        adapter.startUpdate(container);
+        for (int i = 0; i < alivePageCount; i++) {
+            pages.add(adapter.instantiateItem(container, first + i));
+            alive.add(items.get(first + i));
+        }
+        adapter.finishUpdate(container);
+        // 模拟ViewPager.dataSetChanged()：刷新时对每个存活页面调用getItemPosition()
+        final int[] positions = new int[alivePageCount];
+        adapter.registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                for (int i = 0; i < pages.size(); i++) {
+                    positions[i] = adapter.getItemPosition(pages.get(i));
+                }
+            }
+        });
+
+        long indexOfNs = Long.MAX_VALUE;
+        long adapterNs = Long.MAX_VALUE;
+        int[] expected = new int[alivePageCount];
+        for (int round = 0; round < ROUNDS; round++) {
+            Collections.reverse(items);
+            long startNs = System.nanoTime();
+            for (int i = 0; i < alivePageCount; i++) {
+                expected[i] = items.indexOf(alive.get(i));
+            }
+            indexOfNs = Math.min(indexOfNs, System.nanoTime() - startNs);
+
+            startNs = System.nanoTime();
+            adapter.notifyDataSetChanged();
+            adapterNs = Math.min(adapterNs, System.nanoTime() - startNs);
+            for (int i = 0; i < alivePageCount; i++) {
+                assertEquals(expected[i], positions[i]);
+            }
+        }
+        Log.i(TAG, "size=" + size + " alivePages=" + alivePageCount
+                + " indexOf=" + indexOfNs / 1000 + "us adapter=" + adapterNs / 1000 + "us");
+    }
+
+    private static class Adapter extends GracePagerAdapter<String> {
+
+        Adapter(@NonNull List<String> items) {
+            super(items);
+        }
+
+        @NonNull
+        @Override
+        protected View instantiateItemView(@NonNull ViewGroup container, String item, int position) {
+            return new View(container.getContext());
+        }
+
+        @Override
+        protected void bindItemView(@NonNull View itemView, String item, int position, boolean first) {
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.lancewu.graceviewpager;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * 带脏检查的页面动画。<br>
+ * 子类在{@link #onTransformPage(View, float, Transform)}中只需把目标属性写入{@link Transform}，
+ * 由该类与页面上次应用的属性比较，变化超过阈值的属性才会调用View的setter，
+ * 避免页面停在稳定位置（如多页模式下的±1）时每帧重复设置属性导致的重绘。<br>
+ * 上次应用的属性以float数组保存在页面视图上，如果在别处修改了页面的这些属性，需调用
+ * {@link #invalidateAppliedTransform(View)}。
+ */
+public abstract class GraceDirtyCheckedPageTransformer extends GracePageTransformer {
+
+    /**
+     * 透明度
+     */
+    public static final int PROPERTY_ALPHA = 0;
+    /**
+     * X轴平移
+     */
+    public static final int PROPERTY_TRANSLATION_X = 1;
+    /**
+     * Y轴平移
+     */
+    public static final int PROPERTY_TRANSLATION_Y = 2;
+    /**
+     * X轴缩放
+     */
+    public static final int PROPERTY_SCALE_X = 3;
+    /**
+     * Y轴缩放
+     */
+    public static final int PROPERTY_SCALE_Y = 4;
+    /**
+     * 旋转
+     */
+    public static final int PROPERTY_ROTATION = 5;
+    /**
+     * 绕X轴旋转
+     */
+    public static final int PROPERTY_ROTATION_X = 6;
+    /**
+     * 绕Y轴旋转
+     */
+    public static final int PROPERTY_ROTATION_Y = 7;
+    /**
+     * Z轴平移，用于调整页面层级，API 21以下忽略
+     */
+    public static final int PROPERTY_TRANSLATION_Z = 8;
+    // 属性数量
+    private static final int PROPERTY_COUNT = 9;
+
+    // 本帧要应用的属性，复用
+    private final Transform mTransform = new Transform();
+    // 各属性的变化阈值，变化不超过阈值时不设置
+    private final float[] mEpsilons = new float[PROPERTY_COUNT];
+
+    public GraceDirtyCheckedPageTransformer(@NonNull GracePagePositionProvider pagerAdapter) {
+        super(pagerAdapter);
+        mEpsilons[PROPERTY_ALPHA] = 0.002f;
+        mEpsilons[PROPERTY_TRANSLATION_X] = 0.5f;
+        mEpsilons[PROPERTY_TRANSLATION_Y] = 0.5f;
+        mEpsilons[PROPERTY_SCALE_X] = 0.001f;
+        mEpsilons[PROPERTY_SCALE_Y] = 0.001f;
+        mEpsilons[PROPERTY_ROTATION] = 0.1f;
+        mEpsilons[PROPERTY_ROTATION_X] = 0.1f;
+        mEpsilons[PROPERTY_ROTATION_Y] = 0.1f;
+        mEpsilons[PROPERTY_TRANSLATION_Z] = 0.5f;
+    }
+
+    /**
+     * 设置某个属性的变化阈值
+     *
+     * @param property 属性，PROPERTY_*
+     * @param epsilon  阈值，平移单位为像素，旋转单位为角度，小于0会被当做0处理
+     */
+    public void setEpsilon(int property, float epsilon) {
+        mEpsilons[property] = Math.max(0, epsilon);
+    }
+
+    @Override
+    public final void transformPageWithCorrectPosition(@NonNull View page, float position) {
+        Transform transform = mTransform;
+        transform.reset();
+        onTransformPage(page, position, transform);
+        applyTransform(page, transform.mValues);
+    }
+
+    /**
+     * 计算页面动画属性，只需写入transform，未写入的属性保持不变
+     *
+     * @param page      页面
+     * @param position  修正后的position
+     * @param transform 要应用的属性，复用对象，不要持有
+     */
+    protected abstract void onTransformPage(@NonNull View page, float position, @NonNull Transform transform);
+
+    /**
+     * 清除页面上保存的已应用属性，下次会重新设置所有属性
+     *
+     * @param page 页面
+     */
+    public static void invalidateAppliedTransform(@NonNull View page) {
+        page.setTag(R.id.gvp_applied_transform, null);
+    }
+
+    private void applyTransform(View page, float[] values) {
+        float[] applied = (float[]) page.getTag(R.id.gvp_applied_transform);
+        if (applied == null) {
+            applied = new float[PROPERTY_COUNT];
+            Arrays.fill(applied, Float.NaN);
+            page.setTag(R.id.gvp_applied_transform, applied);
+        }
+        for (int property = 0; property < PROPERTY_COUNT; property++) {
+            float value = values[property];
+            if (Float.isNaN(value) || !isDirty(property, applied[property], value)) {
+                continue;
+            }
+            applied[property] = value;
+            setProperty(page, property, value);
+        }
+    }
+
+    // 是否需要重新设置属性
+    private boolean isDirty(int property, float applied, float value) {
+        if (Float.isNaN(applied)) {
+            return true;
+        }
+        if (applied == value) {
+            return false;
+        }
+        // 静止值（如透明度1、缩放1、平移0）必须精确设置，避免停留在接近但不等于静止值的状态
+        return Math.abs(value - applied) > mEpsilons[property] || isRestValue(property, value);
+    }
+
+    private static boolean isRestValue(int property, float value) {
+        switch (property) {
+            case PROPERTY_ALPHA:
+                return value == 0 || value == 1;
+            case PROPERTY_SCALE_X:
+            case PROPERTY_SCALE_Y:
+                return value == 1;
+            default:
+                return value == 0;
+        }
+    }
+
+    private static void setProperty(View page, int property, float value) {
+        switch (property) {
+            case PROPERTY_ALPHA:
+                page.setAlpha(value);
+                break;
+            case PROPERTY_TRANSLATION_X:
+                page.setTranslationX(value);
+                break;
+            case PROPERTY_TRANSLATION_Y:
+                page.setTranslationY(value);
+                break;
+            case PROPERTY_SCALE_X:
+                page.setScaleX(value);
+                break;
+            case PROPERTY_SCALE_Y:
+                page.setScaleY(value);
+                break;
+            case PROPERTY_ROTATION:
+                page.setRotation(value);
+                break;
+            case PROPERTY_ROTATION_X:
+                page.setRotationX(value);
+                break;
+            case PROPERTY_ROTATION_Y:
+                page.setRotationY(value);
+                break;
+            case PROPERTY_TRANSLATION_Z:
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                    setTranslationZ(page, value);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static void setTranslationZ(View page, float value) {
+        page.setTranslationZ(value);
+    }
+
+    /**
+     * 一帧中要应用到页面的属性，未设置的属性不会修改
+     */
+    public static final class Transform {
+
+        // 属性值，NaN表示未设置
+        private final float[] mValues = new float[PROPERTY_COUNT];
+
+        Transform() {
+            reset();
+        }
+
+        void reset() {
+            Arrays.fill(mValues, Float.NaN);
+        }
+
+        public Transform setAlpha(float alpha) {
+            mValues[PROPERTY_ALPHA] = alpha;
+            return this;
+        }
+
+        public Transform setTranslationX(float translationX) {
+            mValues[PROPERTY_TRANSLATION_X] = translationX;
+            return this;
+        }
+
+        public Transform setTranslationY(float translationY) {
+            mValues[PROPERTY_TRANSLATION_Y] = translationY;
+            return this;
+        }
+
+        public Transform setScaleX(float scaleX) {
+            mValues[PROPERTY_SCALE_X] = scaleX;
+            return this;
+        }
+
+        public Transform setScaleY(float scaleY) {
+            mValues[PROPERTY_SCALE_Y] = scaleY;
+            return this;
+        }
+
+        /**
+         * 同时设置X、Y轴缩放
+         *
+         * @param scale 缩放
+         * @return this
+         */
+        public Transform setScale(float scale) {
+            mValues[PROPERTY_SCALE_X] = scale;
+            mValues[PROPERTY_SCALE_Y] = scale;
+            return this;
+        }
+
+        public Transform setRotation(float rotation) {
+            mValues[PROPERTY_ROTATION] = rotation;
+            return this;
+        }
+
+        public Transform setRotationX(float rotationX) {
+            mValues[PROPERTY_ROTATION_X] = rotationX;
+            return this;
+        }
+
+        public Transform setRotationY(float rotationY) {
+            mValues[PROPERTY_ROTATION_Y] = rotationY;
+            return this;
+        }
+
+        public Transform setTranslationZ(float translationZ) {
+            mValues[PROPERTY_TRANSLATION_Z] = translationZ;
+            return this;
+        }
+    }
+}
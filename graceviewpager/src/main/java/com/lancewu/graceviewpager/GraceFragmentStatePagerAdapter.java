@@ -0,0 +1,370 @@
+package com.lancewu.graceviewpager;
+
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.support.annotation.CallSuper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentManager;
+import android.support.v4.app.FragmentTransaction;
+import android.support.v4.util.LongSparseArray;
+import android.support.v4.view.PagerAdapter;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.lancewu.graceviewpager.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * 以Fragment作为页面的拓展PagerAdapter，对应{@link GracePagerAdapter}。<br>
+ * 与FragmentStatePagerAdapter的区别：
+ * <ul>
+ * <li>页面按数据id（{@link #getItemId(Object)}）而不是索引区分，数据刷新后存活的Fragment跟随数据移动到新的索引，
+ * 不会被销毁重建；</li>
+ * <li>只有数据仍存在的页面被销毁时才保存Fragment的状态，重新创建时恢复；数据被删除的页面直接丢弃状态；</li>
+ * <li>实现了{@link GracePagePositionProvider}，可配合{@link GracePageTransformer}修正position。</li>
+ * </ul>
+ * 当前页面的Fragment设置为用户可见（{@link Fragment#setUserVisibleHint(boolean)}、
+ * {@link Fragment#setMenuVisibility(boolean)}），其他页面为不可见。<br>
+ * <font color=red>注意：当前support库没有限制Fragment最大生命周期的方法（setMaxLifecycle），相邻页面的Fragment
+ * 同样会进入RESUMED状态，网络请求、动画等工作应根据getUserVisibleHint()在setUserVisibleHint()中开始、停止</font>
+ *
+ * @param <Item> Item的数据类型
+ */
+public abstract class GraceFragmentStatePagerAdapter<Item> extends PagerAdapter implements GracePagePositionProvider {
+
+    private static final String KEY_STATE_IDS = "gvp_state_ids";
+    private static final String KEY_STATE_PREFIX = "gvp_state_";
+    private static final String KEY_FRAGMENT_IDS = "gvp_fragment_ids";
+    private static final String KEY_FRAGMENT_PREFIX = "gvp_fragment_";
+
+    private final FragmentManager mFragmentManager;
+    // 当前的事务，finishUpdate()时提交
+    private FragmentTransaction mCurTransaction;
+    // 数据集合
+    private List<Item> mItems;
+    // 存活页面
+    private List<FragmentHolder> mFragmentHolders = new ArrayList<>();
+    // 数据id-已销毁页面的Fragment状态
+    private LongSparseArray<Fragment.SavedState> mSavedStates = new LongSparseArray<>();
+    // 数据id-恢复后由FragmentManager重建的Fragment，恢复后第一次更新页面时使用，没有用到的在该次更新中移除
+    private LongSparseArray<Fragment> mRestoredFragments = new LongSparseArray<>();
+    // 当前页面的Fragment
+    private Fragment mCurrentPrimaryItem;
+    // 是否处于数据刷新中
+    private boolean mDataSetChanging;
+    // 数据id-索引 映射，按需构建，数据变化（notifyDataSetChanged()）前一直有效
+    private LongIntHashMap mItemIdPositionIndex = new LongIntHashMap();
+    // 映射是否有效
+    private boolean mItemPositionIndexValid;
+
+    public GraceFragmentStatePagerAdapter(@NonNull FragmentManager fragmentManager, @NonNull List<Item> items) {
+        mFragmentManager = fragmentManager;
+        mItems = items;
+    }
+
+    @Override
+    public int getCount() {
+        return mItems.size();
+    }
+
+    /**
+     * 获取数据集合，修改后需调用{@link #notifyDataSetChanged()}
+     *
+     * @return 数据集合
+     */
+    @NonNull
+    public List<Item> getItems() {
+        return mItems;
+    }
+
+    /**
+     * 获取数据的id，用于区分页面，同一数据的id在刷新前后必须相同，不同数据的id不能相同
+     *
+     * @param item 数据
+     * @return id
+     */
+    protected abstract long getItemId(Item item);
+
+    /**
+     * 创建页面的Fragment
+     *
+     * @param item     数据
+     * @param position 索引
+     * @return Fragment
+     */
+    @NonNull
+    protected abstract Fragment createFragment(Item item, int position);
+
+    /**
+     * 当前页面的Fragment发生变化时回调
+     *
+     * @param oldFragment 之前的Fragment，可为null
+     * @param newFragment 当前的Fragment
+     */
+    protected void onPrimaryFragmentChanged(@Nullable Fragment oldFragment, @NonNull Fragment newFragment) {
+    }
+
+    /**
+     * 获取当前页面的Fragment
+     *
+     * @return 还未设置返回null
+     */
+    @Nullable
+    public Fragment getCurrentPrimaryItem() {
+        return mCurrentPrimaryItem;
+    }
+
+    @Override
+    public void startUpdate(@NonNull ViewGroup container) {
+        if (container.getId() == View.NO_ID) {
+            throw new IllegalStateException("ViewPager with adapter " + this + " requires a view id");
+        }
+    }
+
+    @NonNull
+    @Override
+    public Object instantiateItem(@NonNull ViewGroup container, int position) {
+        Item item = mItems.get(position);
+        long itemId = getItemId(item);
+        Fragment fragment = mRestoredFragments.get(itemId);
+        if (fragment != null) {
+            // FragmentManager恢复时已重建并添加
+            mRestoredFragments.remove(itemId);
+        } else {
+            fragment = createFragment(item, position);
+            Fragment.SavedState savedState = mSavedStates.get(itemId);
+            if (savedState != null) {
+                mSavedStates.remove(itemId);
+                fragment.setInitialSavedState(savedState);
+            }
+            beginTransactionIfNeeded().add(container.getId(), fragment);
+        }
+        fragment.setMenuVisibility(false);
+        fragment.setUserVisibleHint(false);
+        FragmentHolder fragmentHolder = new FragmentHolder(fragment, itemId, position);
+        mFragmentHolders.add(fragmentHolder);
+        return fragmentHolder;
+    }
+
+    @Override
+    public void destroyItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
+        FragmentHolder fragmentHolder = (FragmentHolder) object;
+        Fragment fragment = fragmentHolder.mFragment;
+        // 数据仍存在才保存状态，被删除的数据不再需要
+        if (fragment.isAdded() && indexOfItemId(fragmentHolder.mItemId) != -1) {
+            mSavedStates.put(fragmentHolder.mItemId, mFragmentManager.saveFragmentInstanceState(fragment));
+        }
+        mFragmentHolders.remove(fragmentHolder);
+        if (fragment == mCurrentPrimaryItem) {
+            mCurrentPrimaryItem = null;
+        }
+        beginTransactionIfNeeded().remove(fragment);
+    }
+
+    @Override
+    public void setPrimaryItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
+        Fragment fragment = ((FragmentHolder) object).mFragment;
+        if (fragment == mCurrentPrimaryItem) {
+            return;
+        }
+        Fragment oldFragment = mCurrentPrimaryItem;
+        if (oldFragment != null) {
+            oldFragment.setMenuVisibility(false);
+            oldFragment.setUserVisibleHint(false);
+        }
+        fragment.setMenuVisibility(true);
+        fragment.setUserVisibleHint(true);
+        mCurrentPrimaryItem = fragment;
+        onPrimaryFragmentChanged(oldFragment, fragment);
+    }
+
+    @Override
+    public void finishUpdate(@NonNull ViewGroup container) {
+        if (mRestoredFragments.size() > 0) {
+            removeUnusedRestoredFragments();
+        }
+        if (mCurTransaction != null) {
+            mCurTransaction.commitNowAllowingStateLoss();
+            mCurTransaction = null;
+        }
+    }
+
+    // 恢复后第一次更新页面没有用到的Fragment（数据已删除或超出离屏范围）不会再被使用，数据仍存在时保存状态后移除
+    private void removeUnusedRestoredFragments() {
+        for (int i = 0; i < mRestoredFragments.size(); i++) {
+            long itemId = mRestoredFragments.keyAt(i);
+            Fragment fragment = mRestoredFragments.valueAt(i);
+            if (fragment.isAdded() && indexOfItemId(itemId) != -1) {
+                mSavedStates.put(itemId, mFragmentManager.saveFragmentInstanceState(fragment));
+            }
+            beginTransactionIfNeeded().remove(fragment);
+        }
+        mRestoredFragments.clear();
+    }
+
+    @Override
+    public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
+        return ((FragmentHolder) object).mFragment.getView() == view;
+    }
+
+    @Override
+    public int getItemPosition(@NonNull Object object) {
+        FragmentHolder fragmentHolder = (FragmentHolder) object;
+        int newPos = indexOfItemId(fragmentHolder.mItemId);
+        if (newPos == -1) {
+            return POSITION_NONE;
+        }
+        // Fragment跟随数据移动到新的索引
+        fragmentHolder.mPosition = newPos;
+        return newPos;
+    }
+
+    @CallSuper
+    @Override
+    public void notifyDataSetChanged() {
+        mDataSetChanging = true;
+        // 数据可能已经改变，映射需要重新构建
+        mItemPositionIndexValid = false;
+        // 丢弃已删除数据的状态
+        for (int i = mSavedStates.size() - 1; i >= 0; i--) {
+            if (indexOfItemId(mSavedStates.keyAt(i)) == -1) {
+                mSavedStates.removeAt(i);
+            }
+        }
+        super.notifyDataSetChanged();
+        mDataSetChanging = false;
+    }
+
+    /**
+     * 根据数据id查找在数据集合中的索引，映射在数据变化后第一次查找时构建，之后直到下次数据变化都直接使用
+     *
+     * @param itemId 数据id
+     * @return 未找到返回-1
+     */
+    private int indexOfItemId(long itemId) {
+        if (!mItemPositionIndexValid) {
+            mItemIdPositionIndex.clear();
+            mItemIdPositionIndex.ensureCapacity(mItems.size());
+            // 倒序放入，重复id保留最小的索引
+            ListIterator<Item> iterator = mItems.listIterator(mItems.size());
+            while (iterator.hasPrevious()) {
+                int index = iterator.previousIndex();
+                mItemIdPositionIndex.put(getItemId(iterator.previous()), index);
+            }
+            mItemPositionIndexValid = true;
+        }
+        return mItemIdPositionIndex.get(itemId, -1);
+    }
+
+    @Nullable
+    @Override
+    public Parcelable saveState() {
+        Bundle state = null;
+        if (mSavedStates.size() > 0) {
+            state = new Bundle();
+            long[] ids = new long[mSavedStates.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = mSavedStates.keyAt(i);
+                state.putParcelable(KEY_STATE_PREFIX + ids[i], mSavedStates.valueAt(i));
+            }
+            state.putLongArray(KEY_STATE_IDS, ids);
+        }
+        if (!mFragmentHolders.isEmpty()) {
+            if (state == null) {
+                state = new Bundle();
+            }
+            long[] ids = new long[mFragmentHolders.size()];
+            for (int i = 0; i < ids.length; i++) {
+                FragmentHolder fragmentHolder = mFragmentHolders.get(i);
+                ids[i] = fragmentHolder.mItemId;
+                if (fragmentHolder.mFragment.isAdded()) {
+                    mFragmentManager.putFragment(state, KEY_FRAGMENT_PREFIX + ids[i], fragmentHolder.mFragment);
+                }
+            }
+            state.putLongArray(KEY_FRAGMENT_IDS, ids);
+        }
+        return state;
+    }
+
+    @Override
+    public void restoreState(@Nullable Parcelable state, @Nullable ClassLoader loader) {
+        if (!(state instanceof Bundle)) {
+            return;
+        }
+        Bundle bundle = (Bundle) state;
+        bundle.setClassLoader(loader);
+        mSavedStates.clear();
+        mRestoredFragments.clear();
+        long[] stateIds = bundle.getLongArray(KEY_STATE_IDS);
+        if (stateIds != null) {
+            for (long id : stateIds) {
+                Fragment.SavedState savedState = bundle.getParcelable(KEY_STATE_PREFIX + id);
+                if (savedState != null) {
+                    mSavedStates.put(id, savedState);
+                }
+            }
+        }
+        long[] fragmentIds = bundle.getLongArray(KEY_FRAGMENT_IDS);
+        if (fragmentIds != null) {
+            for (long id : fragmentIds) {
+                Fragment fragment = mFragmentManager.getFragment(bundle, KEY_FRAGMENT_PREFIX + id);
+                if (fragment != null) {
+                    fragment.setMenuVisibility(false);
+                    mRestoredFragments.put(id, fragment);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取页面视图对应的索引
+     *
+     * @param page 页面视图，即Fragment的根视图
+     * @return 未找到返回-1
+     */
+    @Override
+    public int getPageViewPosition(@NonNull View page) {
+        for (int i = 0; i < mFragmentHolders.size(); i++) {
+            FragmentHolder fragmentHolder = mFragmentHolders.get(i);
+            if (fragmentHolder.mFragment.getView() == page) {
+                return fragmentHolder.mPosition;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 数据是否正在刷新中，即是否处于{@link #notifyDataSetChanged()}执行过程
+     *
+     * @return 刷新中返回true
+     */
+    @Override
+    public boolean isDataSetChanging() {
+        return mDataSetChanging;
+    }
+
+    private FragmentTransaction beginTransactionIfNeeded() {
+        if (mCurTransaction == null) {
+            mCurTransaction = mFragmentManager.beginTransaction();
+        }
+        return mCurTransaction;
+    }
+
+    // 负责持有Fragment、数据id、索引的对应关系
+    private static class FragmentHolder {
+        private Fragment mFragment;
+        private long mItemId;
+        private int mPosition;
+
+        FragmentHolder(Fragment fragment, long itemId, int position) {
+            mFragment = fragment;
+            mItemId = itemId;
+            mPosition = position;
+        }
+    }
+}
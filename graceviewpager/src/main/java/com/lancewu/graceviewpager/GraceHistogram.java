@@ -0,0 +1,114 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * 固定分桶的耗时直方图。<br>
+ * 第i个桶记录耗时小于{@link #getBucketUpperBoundNs(int)}的次数，桶上限从16微秒开始按2倍递增，最后一个桶不设上限；
+ * 记录过程不产生任何对象。只允许在主线程记录。
+ */
+public final class GraceHistogram {
+
+    /**
+     * 分桶数量
+     */
+    public static final int BUCKET_COUNT = 14;
+    // 第一个桶的上限：16微秒
+    private static final long FIRST_BUCKET_UPPER_BOUND_NS = 16 * 1000L;
+
+    private final long[] mBucketCounts = new long[BUCKET_COUNT];
+    private long mCount;
+    private long mTotalNs;
+    private long mMaxNs;
+
+    /**
+     * 记录一次耗时
+     *
+     * @param durationNs 耗时，纳秒
+     */
+    public void record(long durationNs) {
+        if (durationNs < 0) {
+            durationNs = 0;
+        }
+        int bucket = 0;
+        long upperBound = FIRST_BUCKET_UPPER_BOUND_NS;
+        while (bucket < BUCKET_COUNT - 1 && durationNs >= upperBound) {
+            bucket++;
+            upperBound <<= 1;
+        }
+        mBucketCounts[bucket]++;
+        mCount++;
+        mTotalNs += durationNs;
+        if (durationNs > mMaxNs) {
+            mMaxNs = durationNs;
+        }
+    }
+
+    /**
+     * 获取某个桶的上限
+     *
+     * @param bucket 桶索引
+     * @return 上限，纳秒；最后一个桶返回{@link Long#MAX_VALUE}
+     */
+    public static long getBucketUpperBoundNs(int bucket) {
+        if (bucket >= BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+        return FIRST_BUCKET_UPPER_BOUND_NS << bucket;
+    }
+
+    /**
+     * 获取某个桶的记录次数
+     *
+     * @param bucket 桶索引
+     * @return 次数
+     */
+    public long getBucketCount(int bucket) {
+        return mBucketCounts[bucket];
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    public long getTotalNs() {
+        return mTotalNs;
+    }
+
+    public long getMaxNs() {
+        return mMaxNs;
+    }
+
+    /**
+     * 获取平均耗时
+     *
+     * @return 平均耗时，纳秒；没有记录返回0
+     */
+    public long getAverageNs() {
+        return mCount == 0 ? 0 : mTotalNs / mCount;
+    }
+
+    /**
+     * 复制数据到另一个直方图，用于生成快照
+     *
+     * @param out 目标直方图
+     */
+    public void copyTo(@NonNull GraceHistogram out) {
+        System.arraycopy(mBucketCounts, 0, out.mBucketCounts, 0, BUCKET_COUNT);
+        out.mCount = mCount;
+        out.mTotalNs = mTotalNs;
+        out.mMaxNs = mMaxNs;
+    }
+
+    /**
+     * 清空记录
+     */
+    public void reset() {
+        Arrays.fill(mBucketCounts, 0);
+        mCount = 0;
+        mTotalNs = 0;
+        mMaxNs = 0;
+    }
+}
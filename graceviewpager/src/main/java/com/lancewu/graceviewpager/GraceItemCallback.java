@@ -0,0 +1,33 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+
+/**
+ * 数据比较回调，用于{@link GracePagerAdapter#submitList(java.util.List)}计算新旧数据集合的差异。<br>
+ * 通过{@link #getItemKey(Object)}判断是否为同一个数据（决定页面的保留、移动、移除），通过
+ * {@link #areContentsTheSame(Object, Object)}判断同一个数据的内容是否发生变化（决定页面是否需要重新绑定）。
+ *
+ * @param <Item> Item的数据类型
+ */
+public abstract class GraceItemCallback<Item> {
+
+    /**
+     * 获取数据的标识，标识相同（equals）代表为同一个数据；默认直接使用数据本身作为标识。<br>
+     * 标识需要正确实现equals()和hashCode()
+     *
+     * @param item 数据
+     * @return 标识
+     */
+    public Object getItemKey(Item item) {
+        return item;
+    }
+
+    /**
+     * 判断同一个数据的内容是否相同，不相同时对应的页面会重新绑定数据
+     *
+     * @param oldItem 旧数据
+     * @param newItem 新数据
+     * @return 内容相同返回true
+     */
+    public abstract boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem);
+}
@@ -0,0 +1,105 @@
+package com.lancewu.graceviewpager;
+
+import com.lancewu.graceviewpager.util.LongIntHashMap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * 数据刷新时查找存活页面数据的新索引。<br>
+ * 存活页面较多时，每次刷新只在首次查找时构建一次数据-索引映射，之后的查找为O(1)；存活页面较少时构建映射的开销大于
+ * 线性查找，直接线性查找。重复数据保留最小的索引，与{@link List#indexOf(Object)}一致。<br>
+ * 只能在刷新过程中使用，数据变化后需调用{@link #invalidate()}
+ *
+ * @param <Item> Item的数据类型
+ */
+final class GraceItemPositionIndex<Item> {
+
+    // 存活页面达到该数量时才构建映射；页面较少时逐个线性查找更快（见GracePagerAdapterPositionBenchmark）
+    static final int MIN_ALIVE_PAGES_FOR_INDEX = 10;
+
+    // 数据-索引 映射
+    private HashMap<Item, Integer> mItemPositionIndex = new HashMap<>();
+    // 数据id-索引 映射，使用稳定id时替代mItemPositionIndex
+    private LongIntHashMap mItemIdPositionIndex = new LongIntHashMap();
+    // 映射是否已针对当前数据构建
+    private boolean mValid;
+
+    /**
+     * 查找数据的索引，通过数据的equals()、hashCode()判断
+     *
+     * @param items          数据集合
+     * @param item           数据
+     * @param alivePageCount 存活页面数量
+     * @return 未找到返回-1
+     */
+    int indexOfItem(List<Item> items, Item item, int alivePageCount) {
+        if (alivePageCount < MIN_ALIVE_PAGES_FOR_INDEX) {
+            return items.indexOf(item);
+        }
+        if (!mValid) {
+            mItemPositionIndex.clear();
+            // 倒序放入，重复数据保留最小的索引
+            ListIterator<Item> iterator = items.listIterator(items.size());
+            while (iterator.hasPrevious()) {
+                int index = iterator.previousIndex();
+                mItemPositionIndex.put(iterator.previous(), index);
+            }
+            mValid = true;
+        }
+        Integer position = mItemPositionIndex.get(item);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * 根据数据id查找数据的索引
+     *
+     * @param items          数据集合
+     * @param itemId         数据id
+     * @param idProvider     数据id提供者
+     * @param alivePageCount 存活页面数量
+     * @return 未找到返回-1
+     */
+    int indexOfItemId(List<Item> items, long itemId, GraceListDiffer.ItemIdProvider<Item> idProvider,
+                      int alivePageCount) {
+        if (alivePageCount < MIN_ALIVE_PAGES_FOR_INDEX) {
+            ListIterator<Item> iterator = items.listIterator();
+            while (iterator.hasNext()) {
+                int index = iterator.nextIndex();
+                if (idProvider.getItemId(iterator.next()) == itemId) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+        if (!mValid) {
+            mItemIdPositionIndex.clear();
+            mItemIdPositionIndex.ensureCapacity(items.size());
+            // 倒序放入，重复id保留最小的索引
+            ListIterator<Item> iterator = items.listIterator(items.size());
+            while (iterator.hasPrevious()) {
+                int index = iterator.previousIndex();
+                mItemIdPositionIndex.put(idProvider.getItemId(iterator.previous()), index);
+            }
+            mValid = true;
+        }
+        return mItemIdPositionIndex.get(itemId, -1);
+    }
+
+    /**
+     * 数据可能已经改变，下次查找时重新构建映射
+     */
+    void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * 释放映射对数据的引用
+     */
+    void clear() {
+        mItemPositionIndex.clear();
+        mItemIdPositionIndex.clear();
+        mValid = false;
+    }
+}
@@ -0,0 +1,164 @@
+package com.lancewu.graceviewpager;
+
+import com.lancewu.graceviewpager.util.LongIntHashMap;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 计算新旧数据集合的差异：插入、移除、移动以及内容变化。<br>
+ * 通过数据标识建立新数据的索引映射，整体为O(n)；不访问任何视图，可以在子线程执行。
+ */
+final class GraceListDiffer {
+
+    private GraceListDiffer() {
+    }
+
+    /**
+     * 计算差异
+     *
+     * @param oldItems   旧数据集合
+     * @param newItems   新数据集合
+     * @param callback   数据比较回调
+     * @param idProvider 数据id提供者，不为null时使用数据id判断是否为同一个数据，否则使用
+     *                   {@link GraceItemCallback#getItemKey(Object)}
+     * @param <Item>     Item的数据类型
+     * @return 差异结果
+     */
+    static <Item> DiffResult calculateDiff(List<Item> oldItems, List<Item> newItems,
+                                           GraceItemCallback<Item> callback, ItemIdProvider<Item> idProvider) {
+        int oldSize = oldItems.size();
+        int newSize = newItems.size();
+        // 标识-新索引，重复标识保留最小的索引
+        HashMap<Object, Integer> newPositions = null;
+        LongIntHashMap newIdPositions = null;
+        if (idProvider != null) {
+            newIdPositions = new LongIntHashMap(newSize);
+            for (int i = newSize - 1; i >= 0; i--) {
+                newIdPositions.put(idProvider.getItemId(newItems.get(i)), i);
+            }
+        } else {
+            newPositions = new HashMap<>(Math.max(16, (int) (newSize / 0.75f) + 1));
+            for (int i = newSize - 1; i >= 0; i--) {
+                newPositions.put(callback.getItemKey(newItems.get(i)), i);
+            }
+        }
+        int[] oldToNew = new int[oldSize];
+        boolean[] contentChanged = new boolean[oldSize];
+        boolean[] newMatched = new boolean[newSize];
+        int matchedCount = 0;
+        int movedCount = 0;
+        int changedCount = 0;
+        for (int i = 0; i < oldSize; i++) {
+            Item oldItem = oldItems.get(i);
+            int newPos;
+            if (newIdPositions != null) {
+                newPos = newIdPositions.get(idProvider.getItemId(oldItem), -1);
+            } else {
+                Integer position = newPositions.get(callback.getItemKey(oldItem));
+                newPos = position == null ? -1 : position;
+            }
+            // 重复标识只匹配一次，多余的当做移除
+            if (newPos == -1 || newMatched[newPos]) {
+                oldToNew[i] = -1;
+                continue;
+            }
+            newMatched[newPos] = true;
+            oldToNew[i] = newPos;
+            matchedCount++;
+            if (newPos != i) {
+                movedCount++;
+            }
+            Item newItem = newItems.get(newPos);
+            if (oldItem != newItem && (oldItem == null || newItem == null
+                    || !callback.areContentsTheSame(oldItem, newItem))) {
+                contentChanged[i] = true;
+                changedCount++;
+            }
+        }
+        return new DiffResult(oldToNew, contentChanged, newSize - matchedCount,
+                oldSize - matchedCount, movedCount, changedCount);
+    }
+
+    /**
+     * 数据id提供者
+     *
+     * @param <Item> Item的数据类型
+     */
+    interface ItemIdProvider<Item> {
+        long getItemId(Item item);
+    }
+
+    /**
+     * 差异结果
+     */
+    static final class DiffResult {
+        // 旧索引-新索引，-1表示已移除
+        private final int[] mOldToNew;
+        // 旧索引对应数据内容是否变化
+        private final boolean[] mContentChanged;
+        private final int mInsertedCount;
+        private final int mRemovedCount;
+        // 位置发生变化的数量（包括插入、移除导致的位移）
+        private final int mMovedCount;
+        private final int mChangedCount;
+
+        DiffResult(int[] oldToNew, boolean[] contentChanged, int insertedCount,
+                   int removedCount, int movedCount, int changedCount) {
+            mOldToNew = oldToNew;
+            mContentChanged = contentChanged;
+            mInsertedCount = insertedCount;
+            mRemovedCount = removedCount;
+            mMovedCount = movedCount;
+            mChangedCount = changedCount;
+        }
+
+        /**
+         * 获取旧索引对应的新索引
+         *
+         * @param oldPosition 旧索引
+         * @return 已移除返回-1
+         */
+        int getNewPosition(int oldPosition) {
+            if (oldPosition < 0 || oldPosition >= mOldToNew.length) {
+                return -1;
+            }
+            return mOldToNew[oldPosition];
+        }
+
+        /**
+         * 旧索引对应的数据内容是否发生变化
+         *
+         * @param oldPosition 旧索引
+         * @return 变化返回true
+         */
+        boolean isContentChanged(int oldPosition) {
+            return oldPosition >= 0 && oldPosition < mContentChanged.length && mContentChanged[oldPosition];
+        }
+
+        /**
+         * 是否有结构变化（插入、移除、移动）
+         *
+         * @return 有结构变化返回true
+         */
+        boolean hasStructuralChanges() {
+            return mInsertedCount > 0 || mRemovedCount > 0 || mMovedCount > 0;
+        }
+
+        int getInsertedCount() {
+            return mInsertedCount;
+        }
+
+        int getRemovedCount() {
+            return mRemovedCount;
+        }
+
+        int getMovedCount() {
+            return mMovedCount;
+        }
+
+        int getChangedCount() {
+            return mChangedCount;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.lancewu.graceviewpager;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.support.annotation.NonNull;
+import android.support.v4.view.PagerAdapter;
+import android.view.View;
+
+/**
+ * 内存不足处理。<br>
+ * 收到{@link #TRIM_MEMORY_RUNNING_LOW}、{@link #TRIM_MEMORY_RUNNING_CRITICAL}或者{@link #TRIM_MEMORY_BACKGROUND}及以上
+ * 级别时进入内存紧张状态：清空并暂停回收池、预创建的视图，降低实际的offscreenPageLimit，通知Adapter释放屏幕外页面的资源；
+ * 收到更低的级别，或者应用回到前台（期间进入过后台）时恢复。{@link #TRIM_MEMORY_UI_HIDDEN}只表示界面不可见，
+ * 只清空回收池。
+ */
+class GraceMemoryTrimmer implements ComponentCallbacks2 {
+
+    private GraceViewPager mViewPager;
+    // 注册回调的Context
+    private Context mRegisteredContext;
+    // 是否处于内存紧张状态
+    private boolean mTrimmed;
+    // 内存紧张期间应用是否进入过后台
+    private boolean mUiHidden;
+
+    GraceMemoryTrimmer(GraceViewPager viewPager) {
+        mViewPager = viewPager;
+    }
+
+    void register() {
+        if (mRegisteredContext != null) {
+            return;
+        }
+        mRegisteredContext = mViewPager.getContext().getApplicationContext();
+        mRegisteredContext.registerComponentCallbacks(this);
+    }
+
+    void unregister() {
+        if (mRegisteredContext == null) {
+            return;
+        }
+        mRegisteredContext.unregisterComponentCallbacks(this);
+        mRegisteredContext = null;
+    }
+
+    boolean isTrimmed() {
+        return mTrimmed;
+    }
+
+    // 内存紧张时的offscreenPageLimit，保证一屏多页时可见的页面不被销毁
+    int getTrimmedOffscreenPageLimit() {
+        int clientWidth = mViewPager.getMeasuredWidth() - mViewPager.getPaddingLeft() - mViewPager.getPaddingRight();
+        int pageSpace = clientWidth + mViewPager.getPageMargin();
+        if (pageSpace <= 0) {
+            return 1;
+        }
+        int sidePadding = Math.max(mViewPager.getPaddingLeft(), mViewPager.getPaddingRight());
+        return Math.max(1, (sidePadding + pageSpace - 1) / pageSpace);
+    }
+
+    // 窗口重新可见
+    void onWindowVisible() {
+        if (mUiHidden) {
+            endTrim();
+        }
+    }
+
+    void onAdapterChanged(PagerAdapter oldAdapter, PagerAdapter newAdapter) {
+        if (!mTrimmed) {
+            return;
+        }
+        if (oldAdapter instanceof GracePagerAdapter) {
+            ((GracePagerAdapter) oldAdapter).setMemoryTrimmed(false);
+        }
+        if (newAdapter instanceof GracePagerAdapter) {
+            ((GracePagerAdapter) newAdapter).setMemoryTrimmed(true);
+        }
+    }
+
+    // 关闭内存不足处理
+    void release() {
+        unregister();
+        endTrim();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            // 后台进程处于LRU列表中，回到前台时恢复
+            mUiHidden = true;
+            startTrim();
+            return;
+        }
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            // 只是界面不可见，内存并不紧张
+            if (mTrimmed) {
+                mUiHidden = true;
+            }
+            clearRecycledViewPool();
+            return;
+        }
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            startTrim();
+            return;
+        }
+        // 内存压力降低，恢复正常
+        endTrim();
+        if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+            clearRecycledViewPool();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+
+    private void clearRecycledViewPool() {
+        PagerAdapter adapter = mViewPager.getAdapter();
+        if (adapter instanceof GracePagerAdapter) {
+            ((GracePagerAdapter) adapter).getRecycledViewPool().clear();
+        }
+    }
+
+    private void startTrim() {
+        PagerAdapter adapter = mViewPager.getAdapter();
+        if (!mTrimmed) {
+            mTrimmed = true;
+            if (adapter instanceof GracePagerAdapter) {
+                ((GracePagerAdapter) adapter).setMemoryTrimmed(true);
+            }
+            // 先降低offscreenPageLimit，销毁较远的页面
+            mViewPager.updateOffscreenPageLimit();
+        }
+        if (!(adapter instanceof GracePagerAdapter)) {
+            return;
+        }
+        GracePagerAdapter graceAdapter = (GracePagerAdapter) adapter;
+        for (int i = 0; i < mViewPager.getChildCount(); i++) {
+            View child = mViewPager.getChildAt(i);
+            if (!mViewPager.isPageVisible(child)) {
+                graceAdapter.releasePageResources(child);
+            }
+        }
+    }
+
+    private void endTrim() {
+        mUiHidden = false;
+        if (!mTrimmed) {
+            return;
+        }
+        mTrimmed = false;
+        mViewPager.updateOffscreenPageLimit();
+        PagerAdapter adapter = mViewPager.getAdapter();
+        if (adapter instanceof GracePagerAdapter) {
+            ((GracePagerAdapter) adapter).setMemoryTrimmed(false);
+        }
+    }
+}
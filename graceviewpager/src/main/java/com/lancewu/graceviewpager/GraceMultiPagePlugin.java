@@ -18,13 +18,60 @@ public class GraceMultiPagePlugin {
     private int mPageHorizontalMinMargin;
     // 垂直最小间距
     private int mPageVerticalMinMargin;
+    // 运行指标，由GraceViewPager设置，未开启时为null
+    private GracePagerMetrics mMetrics;
+    // 页面尺寸策略
+    private GracePageSizePolicy mPageSizePolicy;
+    // 策略计算结果，[0]为左右padding，[1]为上下padding
+    private final int[] mPadding = new int[2];
+    // 上次计算时的ViewPager尺寸，为0表示缓存无效
+    private int mCachedWidth;
+    private int mCachedHeight;
+    // 上次计算时的比例、最小间距
+    private float mCachedPageHeightWidthRatio;
+    private int mCachedPageHorizontalMinMargin;
+    private int mCachedPageVerticalMinMargin;
 
     private GraceMultiPagePlugin(ViewPager viewPager, float pageHeightWidthRatio,
-                                 int pageHorizontalMinMargin, int pageVerticalMinMargin) {
+                                 int pageHorizontalMinMargin, int pageVerticalMinMargin,
+                                 GracePageSizePolicy pageSizePolicy) {
         mViewPager = viewPager;
         mPageHeightWidthRatio = pageHeightWidthRatio;
         mPageHorizontalMinMargin = pageHorizontalMinMargin;
         mPageVerticalMinMargin = pageVerticalMinMargin;
+        mPageSizePolicy = pageSizePolicy;
+    }
+
+    /**
+     * 获取页面尺寸策略
+     *
+     * @return 页面尺寸策略
+     */
+    @NonNull
+    public GracePageSizePolicy getPageSizePolicy() {
+        return mPageSizePolicy;
+    }
+
+    /**
+     * 设置页面尺寸策略，默认为{@link GracePageSizePolicy.Ratio}
+     *
+     * @param pageSizePolicy 页面尺寸策略
+     */
+    public void setPageSizePolicy(@NonNull GracePageSizePolicy pageSizePolicy) {
+        if (mPageSizePolicy == pageSizePolicy) {
+            return;
+        }
+        mPageSizePolicy = pageSizePolicy;
+        invalidatePageSize();
+    }
+
+    /**
+     * 使缓存的页面尺寸失效，下次测量时重新计算。页面尺寸策略依赖的参数变化后调用
+     */
+    public void invalidatePageSize() {
+        mCachedWidth = 0;
+        mCachedHeight = 0;
+        mViewPager.requestLayout();
     }
 
     /**
@@ -96,6 +143,38 @@ public class GraceMultiPagePlugin {
         mViewPager.requestLayout();
     }
 
+    /**
+     * 同时设置page比例、最小间距以及页面尺寸策略，有变化时只请求一次布局
+     *
+     * @param pageHeightWidthRatio    page比例，如果小于0会被当做0处理
+     * @param pageHorizontalMinMargin 水平最小间距
+     * @param pageVerticalMinMargin   垂直最小间距
+     * @param pageSizePolicy          页面尺寸策略
+     * @return 有变化返回true
+     */
+    public boolean setPageConfig(float pageHeightWidthRatio, int pageHorizontalMinMargin, int pageVerticalMinMargin,
+                              @NonNull GracePageSizePolicy pageSizePolicy) {
+        if (pageHeightWidthRatio < 0) {
+            pageHeightWidthRatio = 0;
+        }
+        if (mPageHeightWidthRatio == pageHeightWidthRatio
+                && mPageHorizontalMinMargin == pageHorizontalMinMargin
+                && mPageVerticalMinMargin == pageVerticalMinMargin
+                && mPageSizePolicy == pageSizePolicy) {
+            return false;
+        }
+        mPageHeightWidthRatio = pageHeightWidthRatio;
+        mPageHorizontalMinMargin = pageHorizontalMinMargin;
+        mPageVerticalMinMargin = pageVerticalMinMargin;
+        if (mPageSizePolicy != pageSizePolicy) {
+            mPageSizePolicy = pageSizePolicy;
+            mCachedWidth = 0;
+            mCachedHeight = 0;
+        }
+        mViewPager.requestLayout();
+        return true;
+    }
+
     /**
      * 确定Page的尺寸
      *
@@ -103,25 +182,41 @@ public class GraceMultiPagePlugin {
      * @param height ViewPager高度
      */
     public void determinePageSize(int width, int height) {
-        if (width == 0 || height == 0) {
+        if (width == mCachedWidth && height == mCachedHeight
+                && mPageHeightWidthRatio == mCachedPageHeightWidthRatio
+                && mPageHorizontalMinMargin == mCachedPageHorizontalMinMargin
+                && mPageVerticalMinMargin == mCachedPageVerticalMinMargin) {
+            // 相关参数都没有变化，padding已经设置过
             return;
         }
-        int paddingHorizontal = mPageHorizontalMinMargin;
-        int paddingVertical = mPageVerticalMinMargin;
-        int availableWidth = width - 2 * paddingHorizontal;
-        int availableHeight = height - 2 * paddingVertical;
-        // 根据比例，计算合适的padding
-        if (mPageHeightWidthRatio > 0 && availableHeight > 0 && availableWidth > 0) {
-            float ratio = (float) availableHeight / availableWidth;
-            // page比例大于剩余空间比例，水平空间充裕
-            if (mPageHeightWidthRatio >= ratio) {
-                int pageWidth = (int) (availableHeight / mPageHeightWidthRatio);
-                paddingHorizontal += (availableWidth - pageWidth) * 0.5f;
-            } else {
-                int pageHeight = (int) (availableWidth * mPageHeightWidthRatio);
-                paddingVertical += (availableHeight - pageHeight) * 0.5f;
-            }
+        GracePagerMetrics metrics = mMetrics;
+        if (metrics == null) {
+            determinePageSizeInternal(width, height);
+            return;
         }
+        long startNs = System.nanoTime();
+        determinePageSizeInternal(width, height);
+        metrics.recordTiming(GracePagerMetrics.TIMING_DETERMINE_PAGE_SIZE, System.nanoTime() - startNs);
+    }
+
+    // 设置运行指标，由GraceViewPager调用
+    void setMetrics(GracePagerMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    private void determinePageSizeInternal(int width, int height) {
+        if (width == 0 || height == 0) {
+            return;
+        }
+        mPageSizePolicy.computePadding(width, height, mPageHeightWidthRatio, mPageHorizontalMinMargin,
+                mPageVerticalMinMargin, mPadding);
+        mCachedWidth = width;
+        mCachedHeight = height;
+        mCachedPageHeightWidthRatio = mPageHeightWidthRatio;
+        mCachedPageHorizontalMinMargin = mPageHorizontalMinMargin;
+        mCachedPageVerticalMinMargin = mPageVerticalMinMargin;
+        int paddingHorizontal = mPadding[0];
+        int paddingVertical = mPadding[1];
         if (mViewPager.getPaddingLeft() == paddingHorizontal
                 && mViewPager.getPaddingRight() == paddingHorizontal
                 && mViewPager.getPaddingTop() == paddingVertical
@@ -144,6 +239,8 @@ public class GraceMultiPagePlugin {
         private int mPageHorizontalMinMargin;
         // 垂直最小间距
         private int mPageVerticalMinMargin;
+        // 页面尺寸策略
+        private GracePageSizePolicy mPageSizePolicy;
 
         public Builder(@NonNull ViewPager viewPager) {
             mViewPager = viewPager;
@@ -183,13 +280,29 @@ public class GraceMultiPagePlugin {
             return this;
         }
 
+        /**
+         * 页面尺寸策略，默认为{@link GracePageSizePolicy.Ratio}
+         *
+         * @param pageSizePolicy 页面尺寸策略
+         * @return Builder
+         */
+        public Builder pageSizePolicy(@NonNull GracePageSizePolicy pageSizePolicy) {
+            mPageSizePolicy = pageSizePolicy;
+            return this;
+        }
+
         /**
          * 构建实例
          *
          * @return GraceMultiPagePlugin
          */
         public GraceMultiPagePlugin build() {
-            return new GraceMultiPagePlugin(mViewPager, mPageHeightWidthRatio, mPageHorizontalMinMargin, mPageVerticalMinMargin);
+            GracePageSizePolicy pageSizePolicy = mPageSizePolicy;
+            if (pageSizePolicy == null) {
+                pageSizePolicy = new GracePageSizePolicy.Ratio();
+            }
+            return new GraceMultiPagePlugin(mViewPager, mPageHeightWidthRatio, mPageHorizontalMinMargin,
+                    mPageVerticalMinMargin, pageSizePolicy);
         }
     }
 }
@@ -0,0 +1,127 @@
+package com.lancewu.graceviewpager;
+
+import android.support.v4.view.ViewPager;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * 页面硬件层管理。<br>
+ * 只在拖动、惯性滑动时把离当前位置最近的若干页面设置为{@link View#LAYER_TYPE_HARDWARE}，
+ * 停止滑动后恢复为{@link View#LAYER_TYPE_NONE}，避免静止时硬件层一直占用显存。
+ */
+class GracePageLayerManager extends ViewPager.SimpleOnPageChangeListener {
+
+    // 默认同时存在的硬件层页面上限
+    static final int DEFAULT_MAX_LAYERED_PAGES = 3;
+
+    private ViewPager mViewPager;
+    // 页面动画，用于判断页面是否需要硬件层，可为null
+    private GracePageTransformer mPageTransformer;
+    // 同时存在的硬件层页面上限
+    private int mMaxLayeredPages = DEFAULT_MAX_LAYERED_PAGES;
+    // 当前设置了硬件层的页面
+    private ArrayList<View> mLayeredPages = new ArrayList<>();
+    // 选择硬件层页面时复用的列表
+    private ArrayList<View> mSelectedPages = new ArrayList<>();
+    // 当前滑动状态
+    private int mScrollState = ViewPager.SCROLL_STATE_IDLE;
+    // 上次选择硬件层页面时滚动到的页面索引，索引变化后重新选择
+    private int mLastPosition = -1;
+
+    GracePageLayerManager(ViewPager viewPager) {
+        mViewPager = viewPager;
+    }
+
+    void setPageTransformer(GracePageTransformer pageTransformer) {
+        mPageTransformer = pageTransformer;
+    }
+
+    void setMaxLayeredPages(int maxLayeredPages) {
+        mMaxLayeredPages = Math.max(0, maxLayeredPages);
+        if (mScrollState != ViewPager.SCROLL_STATE_IDLE) {
+            updateLayeredPages(false);
+        }
+    }
+
+    @Override
+    public void onPageScrollStateChanged(int state) {
+        mScrollState = state;
+        if (state == ViewPager.SCROLL_STATE_IDLE) {
+            mLastPosition = -1;
+            demoteAll();
+        } else {
+            // 设置了页面动画时，ViewPager在分发滑动状态前已把所有页面恢复为LAYER_TYPE_NONE，需要重新设置
+            updateLayeredPages(true);
+        }
+    }
+
+    @Override
+    public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+        // 滑动过程中可能有新页面加入，跨过页面时重新选择
+        if (mScrollState != ViewPager.SCROLL_STATE_IDLE && position != mLastPosition) {
+            mLastPosition = position;
+            updateLayeredPages(false);
+        }
+    }
+
+    /**
+     * 恢复所有由该类设置的硬件层
+     */
+    void demoteAll() {
+        for (int i = mLayeredPages.size() - 1; i >= 0; i--) {
+            mLayeredPages.get(i).setLayerType(View.LAYER_TYPE_NONE, null);
+        }
+        mLayeredPages.clear();
+    }
+
+    // 选出离当前位置最近、需要硬件层的页面（不超过上限）设置硬件层，其余恢复；force为true时已是硬件层的页面也重新设置
+    private void updateLayeredPages(boolean force) {
+        ViewPager viewPager = mViewPager;
+        int originX = viewPager.getScrollX() + viewPager.getPaddingLeft();
+        int childCount = viewPager.getChildCount();
+        ArrayList<View> selectedPages = mSelectedPages;
+        // 页面数量很少，每次选出一个距离最近的页面，不需要排序
+        while (selectedPages.size() < mMaxLayeredPages) {
+            View nearest = null;
+            int nearestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < childCount; i++) {
+                View child = viewPager.getChildAt(i);
+                int distance = Math.abs(child.getLeft() - originX);
+                if (distance < nearestDistance && isLayerCandidate(child) && !selectedPages.contains(child)) {
+                    nearest = child;
+                    nearestDistance = distance;
+                }
+            }
+            if (nearest == null) {
+                break;
+            }
+            selectedPages.add(nearest);
+        }
+        // 未被选中的页面恢复，新选中的页面设置硬件层，已经是硬件层的不重复设置
+        ArrayList<View> layeredPages = mLayeredPages;
+        for (int i = layeredPages.size() - 1; i >= 0; i--) {
+            View page = layeredPages.get(i);
+            if (!selectedPages.contains(page)) {
+                page.setLayerType(View.LAYER_TYPE_NONE, null);
+            }
+        }
+        for (int i = 0; i < selectedPages.size(); i++) {
+            View page = selectedPages.get(i);
+            if (force || !layeredPages.contains(page)) {
+                page.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+        }
+        layeredPages.clear();
+        mLayeredPages = selectedPages;
+        mSelectedPages = layeredPages;
+    }
+
+    private boolean isLayerCandidate(View child) {
+        ViewPager.LayoutParams lp = (ViewPager.LayoutParams) child.getLayoutParams();
+        if (lp.isDecor || child.getVisibility() != View.VISIBLE || child.getWidth() == 0) {
+            return false;
+        }
+        return mPageTransformer == null || mPageTransformer.isHardwareLayerRequired(child);
+    }
+}
@@ -0,0 +1,26 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+import android.view.View;
+
+/**
+ * 页面索引提供者，{@link GracePageTransformer}在数据刷新、页面未布局时通过它获取页面真正的索引来修正position。<br>
+ * 已由{@link GracePagerAdapter}、{@link GraceFragmentStatePagerAdapter}实现
+ */
+public interface GracePagePositionProvider {
+
+    /**
+     * 获取页面视图对应的索引
+     *
+     * @param page 页面视图
+     * @return 未找到返回-1
+     */
+    int getPageViewPosition(@NonNull View page);
+
+    /**
+     * 数据是否正在刷新中，即是否处于notifyDataSetChanged()执行过程
+     *
+     * @return 刷新中返回true
+     */
+    boolean isDataSetChanging();
+}
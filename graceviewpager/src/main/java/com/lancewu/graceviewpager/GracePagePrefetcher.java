@@ -0,0 +1,121 @@
+package com.lancewu.graceviewpager;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.v4.view.PagerAdapter;
+import android.view.Choreographer;
+import android.view.Display;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 页面预取器。<br>
+ * 滑动过程中，利用每帧剩余的空闲时间，沿滑动方向提前创建并绑定即将被ViewPager创建的页面（与RecyclerView的GapWorker
+ * 思路一致）；通过Choreographer获取帧开始时间，以下一帧开始时间作为截止时间，预估剩余时间不足时不预取。
+ */
+final class GracePagePrefetcher implements Runnable {
+
+    private final GraceViewPager mViewPager;
+    // 每次最多预取的页面数量
+    private int mPrefetchItemCount = 1;
+    // 滑动方向：1向后，-1向前，0未知
+    private int mDirection;
+    // 当前帧开始时间
+    private long mFrameTimeNs;
+    // 是否已安排预取
+    private boolean mScheduled;
+    // 帧间隔
+    private long mFrameIntervalNs;
+    private Object mFrameCallback;
+
+    GracePagePrefetcher(GraceViewPager viewPager) {
+        mViewPager = viewPager;
+    }
+
+    void setPrefetchItemCount(int prefetchItemCount) {
+        mPrefetchItemCount = Math.max(1, prefetchItemCount);
+    }
+
+    /**
+     * 安排一次预取，在下一帧结束后的空闲时间执行
+     *
+     * @param direction 滑动方向：1向后，-1向前
+     */
+    void schedule(int direction) {
+        mDirection = direction;
+        if (mScheduled) {
+            return;
+        }
+        mScheduled = true;
+        if (mFrameIntervalNs == 0) {
+            mFrameIntervalNs = computeFrameIntervalNs();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            // 没有Choreographer，以上一次绘制时间作为帧开始时间
+            mFrameTimeNs = TimeUnit.MILLISECONDS.toNanos(mViewPager.getDrawingTime());
+            mViewPager.post(this);
+        }
+    }
+
+    /**
+     * 取消还未执行的预取
+     */
+    void cancel() {
+        if (!mScheduled) {
+            return;
+        }
+        mScheduled = false;
+        mViewPager.removeCallbacks(this);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN && mFrameCallback != null) {
+            Choreographer.getInstance().removeFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        if (mFrameCallback == null) {
+            mFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    mFrameTimeNs = frameTimeNanos;
+                    // 在当前帧的绘制完成后执行
+                    mViewPager.post(GracePagePrefetcher.this);
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+
+    @Override
+    public void run() {
+        mScheduled = false;
+        PagerAdapter adapter = mViewPager.getAdapter();
+        if (!(adapter instanceof GracePagerAdapter) || mDirection == 0) {
+            return;
+        }
+        GracePagerAdapter pagerAdapter = (GracePagerAdapter) adapter;
+        long deadlineNs = mFrameTimeNs + mFrameIntervalNs;
+        // ViewPager会保留当前页前后offscreenPageLimit个页面，下一个需要创建的页面在此范围之外
+        int position = mViewPager.getCurrentItem() + mDirection * (mViewPager.getOffscreenPageLimit() + 1);
+        for (int i = 0; i < mPrefetchItemCount; i++) {
+            if (System.nanoTime() >= deadlineNs
+                    || !pagerAdapter.prefetchItem(mViewPager, position, deadlineNs)) {
+                return;
+            }
+            position += mDirection;
+        }
+    }
+
+    private long computeFrameIntervalNs() {
+        float refreshRate = 60.0f;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            Display display = mViewPager.getDisplay();
+            if (display != null && display.getRefreshRate() >= 30.0f) {
+                refreshRate = display.getRefreshRate();
+            }
+        }
+        return (long) (TimeUnit.SECONDS.toNanos(1) / refreshRate);
+    }
+}
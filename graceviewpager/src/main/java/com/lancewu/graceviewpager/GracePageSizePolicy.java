@@ -0,0 +1,118 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+
+/**
+ * 页面尺寸策略，由{@link GraceMultiPagePlugin}调用，根据ViewPager尺寸计算ViewPager的padding，从而确定页面尺寸。<br>
+ * 计算结果会被缓存，只有ViewPager尺寸、比例、最小间距或策略变化时才会重新计算，所以实现必须是无状态的（参数不可变）；
+ * 如果实现依赖其他可变参数，参数变化后需调用{@link GraceMultiPagePlugin#invalidatePageSize()}。
+ */
+public interface GracePageSizePolicy {
+
+    /**
+     * 计算ViewPager的padding
+     *
+     * @param width                   ViewPager宽度，大于0
+     * @param height                  ViewPager高度，大于0
+     * @param pageHeightWidthRatio    page比例，height:width，小于等于0表示比例无效
+     * @param pageHorizontalMinMargin 水平最小间距
+     * @param pageVerticalMinMargin   垂直最小间距
+     * @param outPadding              输出，[0]为左右padding，[1]为上下padding
+     */
+    void computePadding(int width, int height, float pageHeightWidthRatio, int pageHorizontalMinMargin,
+                        int pageVerticalMinMargin, @NonNull int[] outPadding);
+
+    /**
+     * 按比例策略（默认）：在最小间距内放下最大的、符合比例的页面
+     */
+    class Ratio implements GracePageSizePolicy {
+
+        @Override
+        public void computePadding(int width, int height, float pageHeightWidthRatio, int pageHorizontalMinMargin,
+                                   int pageVerticalMinMargin, @NonNull int[] outPadding) {
+            int paddingHorizontal = pageHorizontalMinMargin;
+            int paddingVertical = pageVerticalMinMargin;
+            int availableWidth = width - 2 * paddingHorizontal;
+            int availableHeight = height - 2 * paddingVertical;
+            // 根据比例，计算合适的padding
+            if (pageHeightWidthRatio > 0 && availableHeight > 0 && availableWidth > 0) {
+                float ratio = (float) availableHeight / availableWidth;
+                // page比例大于剩余空间比例，水平空间充裕
+                if (pageHeightWidthRatio >= ratio) {
+                    int pageWidth = (int) (availableHeight / pageHeightWidthRatio);
+                    paddingHorizontal += (availableWidth - pageWidth) * 0.5f;
+                } else {
+                    int pageHeight = (int) (availableWidth * pageHeightWidthRatio);
+                    paddingVertical += (availableHeight - pageHeight) * 0.5f;
+                }
+            }
+            outPadding[0] = paddingHorizontal;
+            outPadding[1] = paddingVertical;
+        }
+    }
+
+    /**
+     * 固定页面宽度策略：页面宽度固定（不超过最小间距内的可用宽度），比例有效时按比例确定页面高度
+     */
+    class FixedWidth implements GracePageSizePolicy {
+
+        // 页面宽度
+        private final int mPageWidth;
+
+        /**
+         * @param pageWidth 页面宽度，像素
+         */
+        public FixedWidth(int pageWidth) {
+            mPageWidth = pageWidth;
+        }
+
+        @Override
+        public void computePadding(int width, int height, float pageHeightWidthRatio, int pageHorizontalMinMargin,
+                                   int pageVerticalMinMargin, @NonNull int[] outPadding) {
+            computePaddingForPageWidth(mPageWidth, width, height, pageHeightWidthRatio, pageHorizontalMinMargin,
+                    pageVerticalMinMargin, outPadding);
+        }
+
+        static void computePaddingForPageWidth(int pageWidth, int width, int height, float pageHeightWidthRatio,
+                                               int pageHorizontalMinMargin, int pageVerticalMinMargin,
+                                               int[] outPadding) {
+            int availableWidth = width - 2 * pageHorizontalMinMargin;
+            pageWidth = Math.max(0, Math.min(pageWidth, availableWidth));
+            int paddingHorizontal = pageHorizontalMinMargin + (availableWidth - pageWidth) / 2;
+            int paddingVertical = pageVerticalMinMargin;
+            if (pageHeightWidthRatio > 0) {
+                int availableHeight = height - 2 * pageVerticalMinMargin;
+                int pageHeight = (int) (pageWidth * pageHeightWidthRatio);
+                if (pageHeight < availableHeight) {
+                    paddingVertical += (availableHeight - pageHeight) / 2;
+                }
+            }
+            outPadding[0] = paddingHorizontal;
+            outPadding[1] = paddingVertical;
+        }
+    }
+
+    /**
+     * 一屏页数策略：页面宽度为ViewPager宽度的1/N（不超过最小间距内的可用宽度），比例有效时按比例确定页面高度
+     */
+    class PagesPerScreen implements GracePageSizePolicy {
+
+        // 一屏显示的页数
+        private final float mPagesPerScreen;
+
+        /**
+         * @param pagesPerScreen 一屏显示的页数，可以为小数，最小为1
+         */
+        public PagesPerScreen(float pagesPerScreen) {
+            mPagesPerScreen = Math.max(1, pagesPerScreen);
+        }
+
+        @Override
+        public void computePadding(int width, int height, float pageHeightWidthRatio, int pageHorizontalMinMargin,
+                                   int pageVerticalMinMargin, @NonNull int[] outPadding) {
+            int pageWidth = (int) (width / mPagesPerScreen);
+            FixedWidth.computePaddingForPageWidth(pageWidth, width, height, pageHeightWidthRatio,
+                    pageHorizontalMinMargin, pageVerticalMinMargin, outPadding);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.lancewu.graceviewpager;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 页面视图状态存储。<br>
+ * 按key保存已销毁页面的视图状态（{@link android.view.View#saveHierarchyState(SparseArray)}的结果），数量超出上限时
+ * 淘汰最久未使用的状态；保存到Bundle时才计算序列化后的字节数，使用数量、字节数上限，避免TransactionTooLargeException。<br>
+ * 只允许在主线程访问。
+ */
+class GracePageStateStore {
+
+    // 默认内存中保留的状态数量上限
+    static final int DEFAULT_MAX_ENTRIES = 20;
+    // 默认保存到Bundle的状态数量、字节数上限
+    static final int DEFAULT_MAX_PERSISTED_ENTRIES = 8;
+    static final int DEFAULT_MAX_PERSISTED_BYTES = 32 * 1024;
+
+    private static final String KEY_KEYS = "gvp_page_state_keys";
+    private static final String KEY_STATE_PREFIX = "gvp_page_state_";
+
+    // key-状态，按访问顺序排列，最久未使用的在前
+    private LinkedHashMap<Long, SparseArray<Parcelable>> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private int mMaxEntries = DEFAULT_MAX_ENTRIES;
+    private int mMaxPersistedEntries = DEFAULT_MAX_PERSISTED_ENTRIES;
+    private int mMaxPersistedBytes = DEFAULT_MAX_PERSISTED_BYTES;
+
+    void setBudget(int maxEntries) {
+        mMaxEntries = Math.max(0, maxEntries);
+        trim();
+    }
+
+    void setPersistedBudget(int maxEntries, int maxBytes) {
+        mMaxPersistedEntries = Math.max(0, maxEntries);
+        mMaxPersistedBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * 保存状态，替换相同key的旧状态；状态为空时不保存。只记录引用，不序列化
+     *
+     * @param key   key
+     * @param state 状态
+     */
+    void put(long key, SparseArray<Parcelable> state) {
+        remove(key);
+        if (state.size() == 0) {
+            return;
+        }
+        mEntries.put(key, state);
+        trim();
+    }
+
+    /**
+     * 取出状态，取出后不再保留
+     *
+     * @param key key
+     * @return 没有返回null
+     */
+    SparseArray<Parcelable> remove(long key) {
+        return mEntries.remove(key);
+    }
+
+    void clear() {
+        mEntries.clear();
+    }
+
+    /**
+     * 保存到Bundle，优先保存存活页面的状态，其次按最近使用顺序保存已销毁页面的状态，不超过保存上限
+     *
+     * @param liveKeys   存活页面的key
+     * @param liveStates 存活页面的状态
+     * @return 没有需要保存的状态返回null
+     */
+    Bundle saveState(List<Long> liveKeys, List<SparseArray<Parcelable>> liveStates) {
+        ArrayList<Long> keys = new ArrayList<>();
+        ArrayList<SparseArray<Parcelable>> states = new ArrayList<>();
+        int bytes = 0;
+        for (int i = 0; i < liveKeys.size() && keys.size() < mMaxPersistedEntries; i++) {
+            SparseArray<Parcelable> state = liveStates.get(i);
+            if (state.size() == 0 || keys.contains(liveKeys.get(i))) {
+                continue;
+            }
+            int stateBytes = measure(state);
+            if (bytes + stateBytes <= mMaxPersistedBytes) {
+                keys.add(liveKeys.get(i));
+                states.add(state);
+                bytes += stateBytes;
+            }
+        }
+        ArrayList<Map.Entry<Long, SparseArray<Parcelable>>> entries = new ArrayList<>(mEntries.entrySet());
+        for (int i = entries.size() - 1; i >= 0 && keys.size() < mMaxPersistedEntries; i--) {
+            Map.Entry<Long, SparseArray<Parcelable>> entry = entries.get(i);
+            if (keys.contains(entry.getKey())) {
+                continue;
+            }
+            int stateBytes = measure(entry.getValue());
+            if (bytes + stateBytes <= mMaxPersistedBytes) {
+                keys.add(entry.getKey());
+                states.add(entry.getValue());
+                bytes += stateBytes;
+            }
+        }
+        if (keys.isEmpty()) {
+            return null;
+        }
+        Bundle bundle = new Bundle();
+        long[] keyArray = new long[keys.size()];
+        for (int i = 0; i < keyArray.length; i++) {
+            keyArray[i] = keys.get(i);
+            bundle.putSparseParcelableArray(KEY_STATE_PREFIX + i, states.get(i));
+        }
+        bundle.putLongArray(KEY_KEYS, keyArray);
+        return bundle;
+    }
+
+    /**
+     * 从Bundle恢复，替换当前所有状态
+     *
+     * @param bundle {@link #saveState}的结果
+     */
+    void restoreState(Bundle bundle) {
+        clear();
+        long[] keys = bundle.getLongArray(KEY_KEYS);
+        if (keys == null) {
+            return;
+        }
+        // 保存时最近使用的在前，倒序放入以保持使用顺序
+        for (int i = keys.length - 1; i >= 0; i--) {
+            SparseArray<Parcelable> state = bundle.getSparseParcelableArray(KEY_STATE_PREFIX + i);
+            if (state != null) {
+                put(keys[i], state);
+            }
+        }
+    }
+
+    // 超出上限时淘汰最久未使用的状态
+    private void trim() {
+        Iterator<SparseArray<Parcelable>> iterator = mEntries.values().iterator();
+        while (mEntries.size() > mMaxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    // 计算状态序列化后的字节数，只在保存到Bundle时调用
+    @SuppressWarnings("unchecked")
+    private static int measure(SparseArray<Parcelable> state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeSparseArray((SparseArray<Object>) (SparseArray) state);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
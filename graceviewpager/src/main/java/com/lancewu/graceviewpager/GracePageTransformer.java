@@ -4,7 +4,10 @@ import android.support.annotation.NonNull;
 import android.support.v4.view.ViewPager;
 import android.view.View;
 
-import com.lancewu.graceviewpager.util.GraceLog;
+import com.lancewu.graceviewpager.util.GraceSystemTrace;
+import com.lancewu.graceviewpager.util.GraceTrace;
+
+import java.util.Arrays;
 
 /**
  * Created by wrs on 2018/8/7.<br>
@@ -18,21 +21,135 @@ import com.lancewu.graceviewpager.util.GraceLog;
  */
 public abstract class GracePageTransformer implements ViewPager.PageTransformer {
 
-    // 拓展的PagerAdapter
-    private GracePagerAdapter mPagerAdapter;
+    // 页面索引提供者，即拓展的PagerAdapter
+    private GracePagePositionProvider mPagerAdapter;
+    // 运行指标，由GraceViewPager设置，未开启时为null
+    private GracePagerMetrics mMetrics;
+    // 批量处理动画的ViewPager，该ViewPager的页面不再逐个处理
+    private ViewPager mBatchViewPager;
+    // 批量处理复用的页面、position数组
+    private View[] mBatchPages = new View[0];
+    private float[] mBatchPositions = new float[0];
 
-    public GracePageTransformer(@NonNull GracePagerAdapter pagerAdapter) {
+    /**
+     * @param pagerAdapter {@link GracePagerAdapter}或者{@link GraceFragmentStatePagerAdapter}
+     */
+    public GracePageTransformer(@NonNull GracePagePositionProvider pagerAdapter) {
         mPagerAdapter = pagerAdapter;
     }
 
     @Override
     public void transformPage(@NonNull View page, float position) {
+        if (mBatchViewPager != null && page.getParent() == mBatchViewPager) {
+            // 由GraceViewPager在滚动后统一批量处理
+            return;
+        }
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_TRANSFORM_PAGE);
+        GracePagerMetrics metrics = mMetrics;
+        if (metrics == null) {
+            transformPageInternal(page, position);
+        } else {
+            long startNs = System.nanoTime();
+            transformPageInternal(page, position);
+            metrics.recordTiming(GracePagerMetrics.TIMING_TRANSFORM_PAGE, System.nanoTime() - startNs);
+        }
+        GraceSystemTrace.endSection();
+    }
+
+    private void transformPageInternal(View page, float position) {
         ViewPager viewPager;
         if (page.getParent() instanceof ViewPager) {
             viewPager = ((ViewPager) page.getParent());
         } else {
             return;
         }
+        boolean requirePagePosition = isRequirePagePosition(viewPager);
+        position = getCorrectPosition(page, requirePagePosition, viewPager.getCurrentItem(),
+                getOriginX(viewPager), getClientWidth(viewPager));
+        transformPageWithCorrectPosition(page, position);
+    }
+
+    /**
+     * 批量处理ViewPager所有页面的动画，每次滚动只计算一次公共状态，结果写入复用的数组，由GraceViewPager在滚动后调用
+     *
+     * @param viewPager ViewPager
+     * @param cullPages 是否跳过完全在可见区域外的页面，跳过的页面会被标记，保留上次的动画属性，
+     *                  下次批量处理时重新判断
+     */
+    void transformPagesInBatch(ViewPager viewPager, boolean cullPages) {
+        int childCount = viewPager.getChildCount();
+        if (childCount == 0) {
+            return;
+        }
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_TRANSFORM_PAGE);
+        long startNs = mMetrics != null ? System.nanoTime() : 0;
+        if (mBatchPages.length < childCount) {
+            mBatchPages = new View[childCount];
+            mBatchPositions = new float[childCount];
+        }
+        boolean requirePagePosition = isRequirePagePosition(viewPager);
+        int currentItem = viewPager.getCurrentItem();
+        int originX = getOriginX(viewPager);
+        int clientWidth = getClientWidth(viewPager);
+        int count = 0;
+        for (int i = 0; i < childCount; i++) {
+            View child = viewPager.getChildAt(i);
+            ViewPager.LayoutParams lp = (ViewPager.LayoutParams) child.getLayoutParams();
+            if (lp.isDecor) {
+                continue;
+            }
+            float position = getCorrectPosition(child, requirePagePosition, currentItem, originX, clientWidth);
+            if (cullPages) {
+                boolean culled = isOutsideViewport(viewPager, child, position, clientWidth);
+                setPageCulled(child, culled);
+                if (culled) {
+                    continue;
+                }
+            }
+            mBatchPages[count] = child;
+            mBatchPositions[count] = position;
+            count++;
+        }
+        transformPagesWithCorrectPosition(mBatchPages, mBatchPositions, count);
+        // 不持有页面引用
+        Arrays.fill(mBatchPages, 0, count, null);
+        if (mMetrics != null) {
+            mMetrics.recordTiming(GracePagerMetrics.TIMING_TRANSFORM_PAGE, System.nanoTime() - startNs);
+        }
+        GraceSystemTrace.endSection();
+    }
+
+    /**
+     * 页面是否因在可见区域外而跳过了动画
+     *
+     * @param page 页面
+     * @return 跳过了返回true
+     */
+    static boolean isPageCulled(View page) {
+        return page.getTag(R.id.gvp_page_culled) != null;
+    }
+
+    static void setPageCulled(View page, boolean culled) {
+        if (culled != isPageCulled(page)) {
+            page.setTag(R.id.gvp_page_culled, culled ? Boolean.TRUE : null);
+        }
+    }
+
+    // 根据position判断页面是否完全在可见区域（包括左右padding）外
+    private static boolean isOutsideViewport(ViewPager viewPager, View page, float position, int clientWidth) {
+        // 相对position为0时页面left的偏移
+        float left = position * clientWidth;
+        return left + page.getWidth() <= -viewPager.getPaddingLeft()
+                || left >= clientWidth + viewPager.getPaddingRight();
+    }
+
+    /**
+     * 是否需要根据页面的数据位置计算position
+     *
+     * @param viewPager ViewPager
+     * @return 需要返回true
+     */
+    private boolean isRequirePagePosition(ViewPager viewPager) {
         /*
          * 问题1：调用刷新后，如果数据有位置更新会立马调用该方法，此时还未调用layout方法，所以当前page的left位置不一定
          * 代表最终layout位置；
@@ -44,29 +161,49 @@ public abstract class GracePageTransformer implements ViewPager.PageTransformer
          */
 
         // 数据刷新、填充新page的时候，要判断page真正的位置才能得到正确的position
-        boolean dataSetChanging = mPagerAdapter.isDataSetChanging();
-        boolean requirePagePosition = dataSetChanging || viewPager.isLayoutRequested();
+        return mPagerAdapter.isDataSetChanging() || viewPager.isLayoutRequested();
+    }
+
+    // 计算修正后的position
+    private float getCorrectPosition(View page, boolean requirePagePosition, int currentItem,
+                                     int originX, int clientWidth) {
+        float position;
         if (requirePagePosition) {
-            int currentItem = viewPager.getCurrentItem();
             int pageViewIndex = mPagerAdapter.getPageViewPosition(page);
-            GraceLog.d("transformPage() requirePagePosition: currentItem = ["
-                    + currentItem + "], pageViewIndex = [" + pageViewIndex + "]");
+            GraceTrace.record(GraceTrace.EVENT_TRANSFORM_REQUIRE_POSITION, currentItem, pageViewIndex);
             if (currentItem == pageViewIndex) {
                 position = 0;
             } else {
                 position = pageViewIndex - currentItem;
             }
         } else {
-            position = getPositionConsiderPadding(viewPager, page);
+            // padding影响了position，自己生成position
+            position = (float) (page.getLeft() - originX) / clientWidth;
         }
-        GraceLog.d("transformPage() called with: page = [" + page + "], position = [" + position + "]");
-        transformPageWithCorrectPosition(page, position);
+        if (GraceTrace.isEnable()) {
+            GraceTrace.record(GraceTrace.EVENT_TRANSFORM_PAGE, System.identityHashCode(page), position);
+        }
+        return position;
     }
 
-    private float getPositionConsiderPadding(ViewPager viewPager, View page) {
-        // padding影响了position，自己生成position
-        int clientWidth = viewPager.getMeasuredWidth() - viewPager.getPaddingLeft() - viewPager.getPaddingRight();
-        return (float) (page.getLeft() - viewPager.getScrollX() - viewPager.getPaddingLeft()) / clientWidth;
+    // 设置批量处理的ViewPager，由GraceViewPager调用
+    void setBatchViewPager(ViewPager viewPager) {
+        mBatchViewPager = viewPager;
+    }
+
+    // 设置运行指标，由GraceViewPager调用
+    void setMetrics(GracePagerMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    // 页面position为0时的left
+    private static int getOriginX(ViewPager viewPager) {
+        return viewPager.getScrollX() + viewPager.getPaddingLeft();
+    }
+
+    // 除去padding的宽度，即一页的宽度
+    private static int getClientWidth(ViewPager viewPager) {
+        return viewPager.getMeasuredWidth() - viewPager.getPaddingLeft() - viewPager.getPaddingRight();
     }
 
     /**
@@ -77,4 +214,30 @@ public abstract class GracePageTransformer implements ViewPager.PageTransformer
      * @see android.support.v4.view.ViewPager.PageTransformer#transformPage(View, float)
      */
     public abstract void transformPageWithCorrectPosition(@NonNull View page, float position);
+
+    /**
+     * 开启{@link GraceViewPager#setPageLayerAutoEnabled(boolean)}后，判断页面在滑动时是否需要硬件层；
+     * 只修改平移、缩放等属性而不修改透明度时，页面不需要硬件层，可返回false节省显存
+     *
+     * @param page 页面
+     * @return 需要返回true，默认为true
+     */
+    protected boolean isHardwareLayerRequired(@NonNull View page) {
+        return true;
+    }
+
+    /**
+     * 批量对页面做动画，在{@link GraceViewPager}中每次滚动只回调一次，包含所有页面；默认逐个调用
+     * {@link #transformPageWithCorrectPosition(View, float)}。<br>
+     * 数组会被复用，只在回调中有效，不要持有
+     *
+     * @param pages     页面，有效元素为[0, count)
+     * @param positions 修正后的position，与pages一一对应
+     * @param count     页面数量
+     */
+    public void transformPagesWithCorrectPosition(@NonNull View[] pages, @NonNull float[] positions, int count) {
+        for (int i = 0; i < count; i++) {
+            transformPageWithCorrectPosition(pages[i], positions[i]);
+        }
+    }
 }
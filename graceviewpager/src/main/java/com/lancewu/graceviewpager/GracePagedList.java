@@ -0,0 +1,252 @@
+package com.lancewu.graceviewpager;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v4.util.LruCache;
+import android.util.SparseBooleanArray;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 分段懒加载的数据集合，配合{@link GracePagedPagerAdapter}使用。<br>
+ * 数据总数固定，数据按固定大小分段，通过{@link #loadAround(int)}在后台线程加载某个位置附近的分段，
+ * 未加载的位置{@link #get(int)}返回null（占位）；加载的分段按LRU策略保留，超出上限时淘汰最久未使用的分段。<br>
+ * 除{@link DataSource#loadRange(int, int)}外，只允许在主线程访问。
+ *
+ * @param <Item> Item的数据类型
+ */
+public class GracePagedList<Item> extends AbstractList<Item> {
+
+    // 默认分段大小
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    // 默认最多保留的分段数量
+    private static final int DEFAULT_MAX_LOADED_PAGES = 10;
+
+    // 数据源
+    private DataSource<Item> mDataSource;
+    // 加载使用的线程池
+    private Executor mExecutor;
+    // 数据总数
+    private int mTotalCount;
+    // 分段大小
+    private int mPageSize;
+    // 当前位置前后预加载的分段数量
+    private int mPrefetchPageDistance = 1;
+    // 分段索引-分段数据，按LRU淘汰
+    private LruCache<Integer, List<Item>> mPages;
+    // 正在加载的分段
+    private SparseBooleanArray mLoadingPages = new SparseBooleanArray();
+    // 代数，失效后递增，丢弃过期的加载结果
+    private int mGeneration;
+    // 加载完成后切回主线程
+    private Handler mMainThreadHandler = new Handler(Looper.getMainLooper());
+    // 回调
+    private List<Callback> mCallbacks = new ArrayList<>();
+
+    public GracePagedList(@NonNull DataSource<Item> dataSource, int totalCount, @NonNull Executor executor) {
+        this(dataSource, totalCount, DEFAULT_PAGE_SIZE, DEFAULT_MAX_LOADED_PAGES, executor);
+    }
+
+    /**
+     * @param dataSource     数据源
+     * @param totalCount     数据总数
+     * @param pageSize       分段大小，最小为1
+     * @param maxLoadedPages 最多保留的分段数量，最小为2*预加载分段数量+1
+     * @param executor       加载使用的线程池
+     */
+    public GracePagedList(@NonNull DataSource<Item> dataSource, int totalCount, int pageSize, int maxLoadedPages,
+                          @NonNull Executor executor) {
+        mDataSource = dataSource;
+        mTotalCount = Math.max(0, totalCount);
+        mPageSize = Math.max(1, pageSize);
+        mExecutor = executor;
+        mPages = new LruCache<>(Math.max(2 * mPrefetchPageDistance + 1, maxLoadedPages));
+    }
+
+    /**
+     * 获取数据，未加载时返回null，不会触发加载
+     *
+     * @param index 索引
+     * @return 数据，未加载返回null
+     */
+    @Nullable
+    @Override
+    public Item get(int index) {
+        if (index < 0 || index >= mTotalCount) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mTotalCount);
+        }
+        List<Item> page = mPages.get(index / mPageSize);
+        if (page == null) {
+            return null;
+        }
+        int indexInPage = index % mPageSize;
+        return indexInPage < page.size() ? page.get(indexInPage) : null;
+    }
+
+    @Override
+    public int size() {
+        return mTotalCount;
+    }
+
+    /**
+     * 某个位置的数据是否已加载
+     *
+     * @param index 索引
+     * @return 已加载返回true
+     */
+    public boolean isLoaded(int index) {
+        return mPages.get(index / mPageSize) != null;
+    }
+
+    /**
+     * 加载某个位置所在的分段以及前后的分段，已加载的分段会被标记为最近使用
+     *
+     * @param index 索引
+     */
+    public void loadAround(int index) {
+        if (index < 0 || index >= mTotalCount) {
+            return;
+        }
+        int pageIndex = index / mPageSize;
+        int lastPageIndex = (mTotalCount - 1) / mPageSize;
+        // 先加载当前分段，再由近及远加载前后分段
+        loadPage(pageIndex);
+        for (int distance = 1; distance <= mPrefetchPageDistance; distance++) {
+            if (pageIndex + distance <= lastPageIndex) {
+                loadPage(pageIndex + distance);
+            }
+            if (pageIndex - distance >= 0) {
+                loadPage(pageIndex - distance);
+            }
+        }
+    }
+
+    /**
+     * 设置当前位置前后预加载的分段数量，默认为1
+     *
+     * @param prefetchPageDistance 分段数量，最小为0
+     */
+    public void setPrefetchPageDistance(int prefetchPageDistance) {
+        mPrefetchPageDistance = Math.max(0, prefetchPageDistance);
+    }
+
+    /**
+     * 数据源发生变化，丢弃已加载的分段以及正在加载的结果
+     *
+     * @param totalCount 新的数据总数
+     */
+    public void invalidate(int totalCount) {
+        mGeneration++;
+        mTotalCount = Math.max(0, totalCount);
+        mPages.evictAll();
+        mLoadingPages.clear();
+        for (int i = 0; i < mCallbacks.size(); i++) {
+            mCallbacks.get(i).onInvalidated();
+        }
+    }
+
+    /**
+     * 释放所有已加载的分段（数据总数不变），例如内存不足时调用；之后通过{@link #loadAround(int)}重新加载
+     */
+    public void evictAll() {
+        mPages.evictAll();
+    }
+
+    /**
+     * 内存不足时调用，只保留最近一次{@link #loadAround(int)}附近的分段，其余分段释放（保留上限不变）
+     */
+    public void trimMemory() {
+        mPages.trimToSize(2 * mPrefetchPageDistance + 1);
+    }
+
+    public void addCallback(@NonNull Callback callback) {
+        mCallbacks.add(callback);
+    }
+
+    public void removeCallback(@NonNull Callback callback) {
+        mCallbacks.remove(callback);
+    }
+
+    private void loadPage(final int pageIndex) {
+        if (mPages.get(pageIndex) != null || mLoadingPages.get(pageIndex)) {
+            return;
+        }
+        mLoadingPages.put(pageIndex, true);
+        final int generation = mGeneration;
+        final int startPosition = pageIndex * mPageSize;
+        final int count = Math.min(mPageSize, mTotalCount - startPosition);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<Item> page = mDataSource.loadRange(startPosition, count);
+                mMainThreadHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(generation, pageIndex, startPosition, page);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPageLoaded(int generation, int pageIndex, int startPosition, List<Item> page) {
+        if (generation != mGeneration) {
+            // 已失效
+            return;
+        }
+        mLoadingPages.delete(pageIndex);
+        if (page == null) {
+            // 加载失败，保持占位，下次loadAround重试
+            return;
+        }
+        mPages.put(pageIndex, page);
+        int count = Math.min(page.size(), mTotalCount - startPosition);
+        for (int i = 0; i < mCallbacks.size(); i++) {
+            mCallbacks.get(i).onItemRangeLoaded(startPosition, count);
+        }
+    }
+
+    /**
+     * 数据源，负责按范围加载数据
+     *
+     * @param <Item> Item的数据类型
+     */
+    public interface DataSource<Item> {
+
+        /**
+         * 在后台线程加载一段数据
+         *
+         * @param startPosition 起始索引
+         * @param count         数量
+         * @return 数据，数量可以少于count；加载失败返回null
+         */
+        @WorkerThread
+        @Nullable
+        List<Item> loadRange(int startPosition, int count);
+    }
+
+    /**
+     * 加载回调，主线程回调
+     */
+    public interface Callback {
+
+        /**
+         * 一段数据加载完成
+         *
+         * @param startPosition 起始索引
+         * @param count         数量
+         */
+        void onItemRangeLoaded(int startPosition, int count);
+
+        /**
+         * 数据已失效，数据总数可能已变化
+         */
+        void onInvalidated();
+    }
+}
@@ -0,0 +1,65 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+import android.view.ViewGroup;
+
+/**
+ * 使用{@link GracePagedList}分段懒加载数据的Adapter。<br>
+ * 当前页面变化时加载附近的分段；数据未加载的位置，{@link #instantiateItemView}、{@link #bindItemView}中的数据为null，
+ * 需要显示占位视图，分段加载完成后存活的页面会重新绑定。数据按索引标识，刷新时页面保持原索引。<br>
+ * 数据索引稳定（{@link #isItemPositionStable()}），不能使用{@link #submitList(java.util.List)}，数据源变化时调用
+ * {@link GracePagedList#invalidate(int)}。
+ *
+ * @param <Item> Item的数据类型
+ */
+public abstract class GracePagedPagerAdapter<Item> extends GracePagerAdapter<Item> {
+
+    // 分段懒加载的数据集合
+    private GracePagedList<Item> mPagedList;
+
+    public GracePagedPagerAdapter(@NonNull GracePagedList<Item> pagedList) {
+        super(pagedList);
+        mPagedList = pagedList;
+        pagedList.addCallback(new GracePagedList.Callback() {
+            @Override
+            public void onItemRangeLoaded(int startPosition, int count) {
+                // 索引不变，只重新绑定占位的存活页面
+                notifyItemRangeChanged(startPosition, count);
+            }
+
+            @Override
+            public void onInvalidated() {
+                notifyDataSetChanged();
+            }
+        });
+    }
+
+    /**
+     * 获取分段懒加载的数据集合
+     *
+     * @return 数据集合
+     */
+    @NonNull
+    public GracePagedList<Item> getPagedList() {
+        return mPagedList;
+    }
+
+    @Override
+    public void setPrimaryItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
+        super.setPrimaryItem(container, position, object);
+        mPagedList.loadAround(getRealPosition(position));
+    }
+
+    @Override
+    void setMemoryTrimmed(boolean trimmed) {
+        super.setMemoryTrimmed(trimmed);
+        if (trimmed) {
+            mPagedList.trimMemory();
+        }
+    }
+
+    @Override
+    protected boolean isItemPositionStable() {
+        return true;
+    }
+}
@@ -1,43 +1,288 @@
 package com.lancewu.graceviewpager;
 
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcelable;
 import android.support.annotation.CallSuper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
 import android.support.v4.view.PagerAdapter;
 import android.support.v4.view.ViewPager;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 
-import com.lancewu.graceviewpager.util.GraceLog;
+import com.lancewu.graceviewpager.util.GraceSystemTrace;
+import com.lancewu.graceviewpager.util.GraceTrace;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Created by wrs on 2018/8/2.<br>
  * 对PagerAdapter进行封装，通过{@link #getItemPosition(Object)}返回正确的值，达到支持ViewPager数据刷新时，
- * 视图按需创建、删除以及刷新的目的；
+ * 视图按需创建、删除以及刷新的目的；<br>
+ * 未开启{@link #setHasStableIds(boolean)}时，刷新后通过数据的equals()判断是否为同一个数据，存活页面较多时使用HashMap查找，
+ * 数据类型重写equals()时必须同时重写hashCode()，否则刷新结果与页面较少时不一致；
  *
  * @param <Item> Item的数据类型
  */
 @SuppressWarnings("unchecked")
-public abstract class GracePagerAdapter<Item> extends PagerAdapter {
+public abstract class GracePagerAdapter<Item> extends PagerAdapter implements GracePagePositionProvider {
+
+    /**
+     * 无效的数据id
+     */
+    public static final long NO_ID = -1;
+
+    // 最多保留的预取页面数量
+    private static final int MAX_PREFETCHED_ITEMS = 2;
+    // 循环模式下虚拟数量为真实数量的倍数（区段数量），当前页面静止后回到中间区段
+    private static final int LOOP_BLOCK_COUNT = 5;
 
     // 数据集合
     private List<Item> mItems;
+    // 数据集合是否为Adapter内部持有的拷贝（通过submitList()提交）
+    private boolean mItemsOwned;
     // 数据-视图 映射关系对象集合
     private List<ViewItemHolder> mViewItemHolders = new ArrayList<>();
     // 是否处于数据刷新中
     private boolean mDataSetChanging;
+    // 刷新时查找数据新索引
+    private GraceItemPositionIndex<Item> mItemPositionIndex = new GraceItemPositionIndex<>();
+    // 是否使用稳定id标识数据
+    private boolean mHasStableIds;
+    // 页面视图回收池
+    private GraceRecycledViewPool mRecycledViewPool = new GraceRecycledViewPool();
+    // submitList()使用的数据比较回调
+    private GraceItemCallback<Item> mItemCallback;
+    // submitList()刷新过程中的差异结果
+    private GraceListDiffer.DiffResult mPendingDiffResult;
+    // 最新一次提交的代数，用于丢弃过期的异步计算结果
+    private int mMaxScheduledGeneration;
+    // 异步计算完成后切回主线程
+    private Handler mMainThreadHandler;
+    // 页面视图预创建器
+    private GraceViewPreInflater mViewPreInflater;
+    // 运行指标，由GraceViewPager设置，未开启时为null
+    private GracePagerMetrics mMetrics;
+    // 预取好但还未被ViewPager使用的页面
+    private List<ViewItemHolder> mPrefetchedViewItemHolders = new ArrayList<>(MAX_PREFETCHED_ITEMS);
+    // 是否开启循环模式
+    private boolean mLoopEnabled;
+    // 存活页面的虚拟索引所对应的真实数量，为0表示存活页面的索引不是虚拟索引
+    private int mLoopRealCount;
+    // 循环模式回到中间区段时所有页面索引的平移量，不为0时instantiateItem()复用平移前对应索引的存活页面
+    private int mPendingLoopShift;
+    // 是否保留已销毁页面的视图状态
+    private boolean mPageStateRetentionEnabled;
+    // 已销毁页面的视图状态
+    private GracePageStateStore mPageStateStore = new GracePageStateStore();
+    // 数据id提供者，供差异计算使用
+    private final GraceListDiffer.ItemIdProvider<Item> mItemIdProvider = new GraceListDiffer.ItemIdProvider<Item>() {
+        @Override
+        public long getItemId(Item item) {
+            return GracePagerAdapter.this.getItemId(item);
+        }
+    };
 
     public GracePagerAdapter(@NonNull List<Item> items) {
         mItems = items;
     }
 
+    /**
+     * 使用{@link #submitList(List)}更新数据时，通过该构造方法传入数据比较回调。<br>
+     * 数据集合会被拷贝作为差异计算的基准，之后对传入集合的修改不会生效，需通过{@link #submitList(List)}更新
+     *
+     * @param items        数据集合
+     * @param itemCallback 数据比较回调
+     */
+    public GracePagerAdapter(@NonNull List<Item> items, @NonNull GraceItemCallback<Item> itemCallback) {
+        this(items);
+        mItemCallback = itemCallback;
+        ownItems();
+    }
+
     @Override
     public int getCount() {
+        int realCount = mItems.size();
+        return isLoopActive() ? realCount * LOOP_BLOCK_COUNT : realCount;
+    }
+
+    /**
+     * 设置是否开启循环模式（默认关闭）。<br>
+     * 开启后{@link #getCount()}返回真实数量的若干倍，ViewPager中的索引为虚拟索引，可通过{@link #getRealPosition(int)}
+     * 换算为真实索引；创建、绑定等回调中的索引都是真实索引。配合{@link GraceViewPager}使用时，滑动停止后会无感知地
+     * 回到中间区段，所以可以一直向两侧滑动。真实数量小于2时不循环。<br>
+     * 建议在设置给ViewPager之前开启
+     *
+     * @param loopEnabled 是否开启
+     */
+    public void setLoopEnabled(boolean loopEnabled) {
+        if (mLoopEnabled == loopEnabled) {
+            return;
+        }
+        mLoopEnabled = loopEnabled;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 是否开启了循环模式
+     *
+     * @return 开启返回true
+     */
+    public boolean isLoopEnabled() {
+        return mLoopEnabled;
+    }
+
+    /**
+     * 获取真实的数据数量
+     *
+     * @return 数据数量
+     */
+    public int getRealCount() {
         return mItems.size();
     }
 
+    /**
+     * 把ViewPager中的索引换算为真实的数据索引，未开启循环模式时原样返回
+     *
+     * @param position ViewPager中的索引
+     * @return 数据索引
+     */
+    public int getRealPosition(int position) {
+        return isLoopActive() ? position % mItems.size() : position;
+    }
+
+    // 是否正在循环
+    private boolean isLoopActive() {
+        return mLoopEnabled && mItems.size() > 1;
+    }
+
+    // 存活页面的虚拟索引换算为真实索引
+    private int toRealPosition(int position) {
+        return mLoopRealCount > 0 ? position % mLoopRealCount : position;
+    }
+
+    // 根据旧的虚拟索引以及新的真实索引，计算新的虚拟索引，保持页面所在区段不变；返回-1表示需要移除
+    private int toLoopPosition(int oldPosition, int newRealPosition) {
+        if (!isLoopActive()) {
+            // 停止循环，各区段中相同数据的页面无法区分，全部重新创建
+            return mLoopRealCount > 0 ? -1 : newRealPosition;
+        }
+        int realCount = mItems.size();
+        if (mLoopRealCount == 0) {
+            // 开始循环，放到中间区段
+            return LOOP_BLOCK_COUNT / 2 * realCount + newRealPosition;
+        }
+        return oldPosition / mLoopRealCount * realCount + newRealPosition;
+    }
+
+    /**
+     * 获取索引在循环模式中间区段对应的位置，未在循环时原样返回
+     *
+     * @param position ViewPager中的索引
+     * @return 中间区段的索引
+     */
+    int getLoopCenterPosition(int position) {
+        if (!isLoopActive()) {
+            return position;
+        }
+        int realCount = mItems.size();
+        return LOOP_BLOCK_COUNT / 2 * realCount + position % realCount;
+    }
+
+    /**
+     * 循环模式下，当前页面靠近两端时，获取回到中间的目标索引（数据相同）。优先中间区段，其次选择平移前后存活页面不重叠、
+     * 可以直接复用页面的区段；当前页面距离两端足够远时不需要回到中间。由GraceViewPager在滑动停止时调用
+     *
+     * @param currentItem        ViewPager当前页面索引
+     * @param offscreenPageLimit ViewPager实际的offscreenPageLimit
+     * @return 目标索引，-1表示不需要
+     */
+    int getLoopRecenterPosition(int currentItem, int offscreenPageLimit) {
+        if (!isLoopActive() || mLoopRealCount != mItems.size() || mDataSetChanging) {
+            return -1;
+        }
+        int realCount = mItems.size();
+        // 至少保留一个区段，并且能放下离屏页面
+        int minEdgeDistance = Math.max(realCount, offscreenPageLimit + 1);
+        if (getLoopEdgeDistance(currentItem) >= minEdgeDistance) {
+            return -1;
+        }
+        int fallback = -1;
+        // 区段顺序：中间、中间-1、中间+1、中间-2、中间+2
+        for (int i = 0; i < LOOP_BLOCK_COUNT; i++) {
+            int block = LOOP_BLOCK_COUNT / 2 + (i % 2 == 0 ? i / 2 : -(i + 1) / 2);
+            int target = block * realCount + currentItem % realCount;
+            if (target == currentItem || getLoopEdgeDistance(target) < minEdgeDistance) {
+                continue;
+            }
+            if (isLoopShiftReusable(target - currentItem, offscreenPageLimit)) {
+                return target;
+            }
+            if (fallback < 0) {
+                fallback = target;
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * 开始回到中间：之后ViewPager跳转到目标索引，{@link #instantiateItem(ViewGroup, int)}直接复用平移前对应索引的
+     * 存活页面并修改其索引，{@link #destroyItem(ViewGroup, int, Object)}跳过已被复用的页面，页面视图不会重新创建、
+     * 绑定。平移前后存活页面可能重叠时不复用，按普通跳转处理。由GraceViewPager在跳转前调用，跳转后需调用
+     * {@link #endLoopRecenter()}
+     *
+     * @param currentItem        ViewPager当前页面索引
+     * @param targetItem         {@link #getLoopRecenterPosition(int, int)}返回的目标索引
+     * @param offscreenPageLimit ViewPager实际的offscreenPageLimit
+     */
+    void beginLoopRecenter(int currentItem, int targetItem, int offscreenPageLimit) {
+        int shift = targetItem - currentItem;
+        mPendingLoopShift = isLoopShiftReusable(shift, offscreenPageLimit) ? shift : 0;
+        // 预取的页面索引已失效
+        clearPrefetchedViewItemHolders();
+    }
+
+    /**
+     * 结束回到中间
+     */
+    void endLoopRecenter() {
+        mPendingLoopShift = 0;
+    }
+
+    // 距离两端的页面数量
+    private int getLoopEdgeDistance(int position) {
+        return Math.min(position, getCount() - 1 - position);
+    }
+
+    // ViewPager保留的页面距离当前页面最多offscreenPageLimit+1（一屏多页时多保留一页），平移量超过两倍时平移前后的
+    // 存活页面不重叠，平移前的页面都会被销毁，可以复用
+    private static boolean isLoopShiftReusable(int shift, int offscreenPageLimit) {
+        return Math.abs(shift) > 2 * (offscreenPageLimit + 1);
+    }
+
+    // 回到中间时，取出平移前对应索引的存活页面，只修改索引
+    private ViewItemHolder takeLoopShiftedViewItemHolder(int position) {
+        int oldPosition = position - mPendingLoopShift;
+        for (int i = 0; i < mViewItemHolders.size(); i++) {
+            ViewItemHolder viewItemHolder = mViewItemHolders.get(i);
+            if (viewItemHolder.mPosition == oldPosition) {
+                viewItemHolder.mPosition = position;
+                // LayoutParams中的position仍是平移前的索引，换成新的LayoutParams（widthFactor为0），
+                // ViewPager填充页面时会重新设置，否则绘制顺序按旧索引排序
+                viewItemHolder.mItemView.setLayoutParams(new ViewPager.LayoutParams());
+                return viewItemHolder;
+            }
+        }
+        return null;
+    }
+
     @Override
     public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
         ViewItemHolder viewItemHolder = (ViewItemHolder) object;
@@ -47,41 +292,375 @@ public abstract class GracePagerAdapter<Item> extends PagerAdapter {
     @NonNull
     @Override
     public Object instantiateItem(@NonNull ViewGroup container, int position) {
-        GraceLog.d("instantiateItem() called with: position = [" + position + "]");
-        Item item = mItems.get(position);
-        View itemView = instantiateItemView(container, item, position);
-        bindItemView(itemView, item, position, true);
-        container.addView(itemView);
-        ViewItemHolder viewItemHolder = new ViewItemHolder(item, itemView, position);
-        mViewItemHolders.add(viewItemHolder);
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_INSTANTIATE_ITEM);
+        Object object = instantiateItemInternal(container, position);
+        GraceSystemTrace.endSection();
+        return object;
+    }
+
+    private Object instantiateItemInternal(ViewGroup container, int position) {
+        GraceTrace.record(GraceTrace.EVENT_INSTANTIATE_ITEM, position, 0);
+        if (mPendingLoopShift != 0) {
+            ViewItemHolder shiftedViewItemHolder = takeLoopShiftedViewItemHolder(position);
+            if (shiftedViewItemHolder != null) {
+                // 视图仍在ViewPager中，不需要重新添加
+                return shiftedViewItemHolder;
+            }
+        }
+        if (mViewItemHolders.isEmpty()) {
+            // 没有存活页面，索引按当前数据换算
+            mLoopRealCount = isLoopActive() ? mItems.size() : 0;
+        }
+        int realPosition = getRealPosition(position);
+        Item item = mItems.get(realPosition);
+        // 优先使用预取好的页面
+        ViewItemHolder viewItemHolder = takePrefetchedViewItemHolder(position, item);
+        if (viewItemHolder == null) {
+            viewItemHolder = obtainViewItemHolder(container, item, position, realPosition,
+                    getItemViewType(item, realPosition));
+        }
+        container.addView(viewItemHolder.mItemView);
+        addViewItemHolder(viewItemHolder);
+        restorePageState(viewItemHolder, realPosition);
+        if (mMetrics != null) {
+            mMetrics.onPageCreated();
+        }
         return viewItemHolder;
     }
 
+    // 获取视图并绑定数据，生成holder；position为ViewPager中的索引，realPosition为数据索引
+    private ViewItemHolder obtainViewItemHolder(ViewGroup container, Item item, int position, int realPosition,
+                                                int viewType) {
+        // 优先复用回收池中的视图，其次使用预创建的视图，都没有再创建
+        View itemView = mRecycledViewPool.getRecycledView(viewType);
+        boolean first = itemView == null;
+        if (!first) {
+            // ViewPager只在widthFactor为0时更新LayoutParams的position、widthFactor，复用的视图需要使用新的LayoutParams，
+            // 否则会沿用上一个页面的值，导致绘制顺序、页面宽度错误
+            itemView.setLayoutParams(new ViewPager.LayoutParams());
+            restorePristineViewState(itemView);
+        }
+        if (first && mViewPreInflater != null) {
+            itemView = mViewPreInflater.acquire(viewType);
+        }
+        if (itemView == null) {
+            long startNs = System.nanoTime();
+            itemView = instantiateItemView(container, item, realPosition);
+            long createTimeNs = System.nanoTime() - startNs;
+            mRecycledViewPool.factorInCreateTime(viewType, createTimeNs);
+            if (mMetrics != null) {
+                mMetrics.recordTiming(GracePagerMetrics.TIMING_INSTANTIATE_ITEM_VIEW, createTimeNs);
+            }
+        }
+        if (first && mPageStateRetentionEnabled) {
+            savePristineViewState(itemView);
+        }
+        long startNs = System.nanoTime();
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_BIND_ITEM_VIEW);
+        bindItemView(itemView, item, realPosition, first);
+        GraceSystemTrace.endSection();
+        long bindTimeNs = System.nanoTime() - startNs;
+        mRecycledViewPool.factorInBindTime(viewType, bindTimeNs);
+        if (mMetrics != null) {
+            mMetrics.recordTiming(GracePagerMetrics.TIMING_BIND_ITEM_VIEW, bindTimeNs);
+        }
+        ViewItemHolder viewItemHolder = new ViewItemHolder(item, itemView, position, viewType);
+        viewItemHolder.mItemId = mHasStableIds ? getItemId(item) : NO_ID;
+        return viewItemHolder;
+    }
+
+    /**
+     * 在截止时间前预取（创建并绑定）某个位置的页面，ViewPager创建该页面时直接使用。<br>
+     * 根据以往创建、绑定的平均耗时预估，剩余时间不足时不预取
+     *
+     * @param container  容器
+     * @param position   索引
+     * @param deadlineNs 截止时间，{@link System#nanoTime()}
+     * @return 预取成功或者已存在返回true
+     */
+    boolean prefetchItem(@NonNull ViewGroup container, int position, long deadlineNs) {
+        if (position < 0 || position >= getCount()) {
+            return false;
+        }
+        for (int i = 0; i < mViewItemHolders.size(); i++) {
+            if (mViewItemHolders.get(i).mPosition == position) {
+                return true;
+            }
+        }
+        for (int i = 0; i < mPrefetchedViewItemHolders.size(); i++) {
+            if (mPrefetchedViewItemHolders.get(i).mPosition == position) {
+                return true;
+            }
+        }
+        int realPosition = getRealPosition(position);
+        Item item = mItems.get(realPosition);
+        int viewType = getItemViewType(item, realPosition);
+        long approxCurrentNs = System.nanoTime();
+        boolean hasView = mRecycledViewPool.getRecycledViewCount(viewType) > 0
+                || (mViewPreInflater != null && mViewPreInflater.hasPreInflated(viewType));
+        if (!hasView && !mRecycledViewPool.willCreateInTime(viewType, approxCurrentNs, deadlineNs)) {
+            return false;
+        }
+        if (!mRecycledViewPool.willBindInTime(viewType, approxCurrentNs, deadlineNs)) {
+            return false;
+        }
+        if (mPrefetchedViewItemHolders.size() >= MAX_PREFETCHED_ITEMS) {
+            recycleViewItemHolder(mPrefetchedViewItemHolders.remove(0));
+        }
+        mPrefetchedViewItemHolders.add(obtainViewItemHolder(container, item, position, realPosition, viewType));
+        return true;
+    }
+
+    // 取出预取好的页面，数据不一致时丢弃
+    private ViewItemHolder takePrefetchedViewItemHolder(int position, Item item) {
+        for (int i = 0; i < mPrefetchedViewItemHolders.size(); i++) {
+            ViewItemHolder viewItemHolder = mPrefetchedViewItemHolders.get(i);
+            if (viewItemHolder.mPosition == position) {
+                mPrefetchedViewItemHolders.remove(i);
+                if (viewItemHolder.mItem == item) {
+                    return viewItemHolder;
+                }
+                recycleViewItemHolder(viewItemHolder);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // 数据刷新后预取的页面可能已失效，全部回收
+    private void clearPrefetchedViewItemHolders() {
+        for (int i = 0; i < mPrefetchedViewItemHolders.size(); i++) {
+            recycleViewItemHolder(mPrefetchedViewItemHolders.get(i));
+        }
+        mPrefetchedViewItemHolders.clear();
+    }
+
+    // 视图放入回收池
+    private void recycleViewItemHolder(ViewItemHolder viewItemHolder) {
+        if (mRecycledViewPool.putRecycledView(viewItemHolder.mViewType, viewItemHolder.mItemView)) {
+            onItemViewRecycled(viewItemHolder.mItemView, viewItemHolder.mItem);
+        }
+    }
+
+    @Override
+    public void startUpdate(@NonNull ViewGroup container) {
+        super.startUpdate(container);
+        if (mViewPreInflater != null) {
+            mViewPreInflater.attach(container);
+        }
+    }
+
     @Override
     public void destroyItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
-        GraceLog.d("destroyItem() called with: position = [" + position + "]");
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_DESTROY_ITEM);
+        destroyItemInternal(container, position, object);
+        GraceSystemTrace.endSection();
+    }
+
+    private void destroyItemInternal(ViewGroup container, int position, Object object) {
+        GraceTrace.record(GraceTrace.EVENT_DESTROY_ITEM, position, 0);
         ViewItemHolder viewItemHolder = (ViewItemHolder) object;
+        if (mPendingLoopShift != 0 && viewItemHolder.mPosition != position) {
+            // 回到中间时已被复用到新的索引
+            return;
+        }
+        savePageState(viewItemHolder);
         container.removeView(viewItemHolder.mItemView);
-        mViewItemHolders.remove(viewItemHolder);
+        removeViewItemHolder(viewItemHolder);
+        recycleViewItemHolder(viewItemHolder);
+        if (mMetrics != null) {
+            mMetrics.onPageDestroyed();
+        }
+    }
+
+    // 保存将被销毁的页面的视图状态
+    private void savePageState(ViewItemHolder viewItemHolder) {
+        long key = getPageStateKey(viewItemHolder, toRealPosition(viewItemHolder.mPosition));
+        if (key == NO_ID) {
+            return;
+        }
+        SparseArray<Parcelable> state = new SparseArray<>();
+        viewItemHolder.mItemView.saveHierarchyState(state);
+        mPageStateStore.put(key, state);
+    }
+
+    // 记录新视图绑定数据前的视图状态
+    private static void savePristineViewState(View itemView) {
+        SparseArray<Parcelable> state = new SparseArray<>();
+        itemView.saveHierarchyState(state);
+        if (state.size() > 0) {
+            itemView.setTag(R.id.gvp_pristine_view_state, state);
+        }
+    }
+
+    // 回收池中的视图保留着上一个页面的视图状态（滚动位置等），绑定数据前恢复为创建时的状态
+    @SuppressWarnings("unchecked")
+    private static void restorePristineViewState(View itemView) {
+        SparseArray<Parcelable> state = (SparseArray<Parcelable>) itemView.getTag(R.id.gvp_pristine_view_state);
+        if (state != null) {
+            itemView.restoreHierarchyState(state);
+        }
+    }
+
+    // 新建的页面恢复之前保存的视图状态
+    private void restorePageState(ViewItemHolder viewItemHolder, int realPosition) {
+        long key = getPageStateKey(viewItemHolder, realPosition);
+        if (key == NO_ID) {
+            return;
+        }
+        SparseArray<Parcelable> state = mPageStateStore.remove(key);
+        if (state != null) {
+            viewItemHolder.mItemView.restoreHierarchyState(state);
+        }
+    }
+
+    // 页面视图状态的key：稳定id，或者索引稳定时的数据索引；都没有返回NO_ID
+    private long getPageStateKey(ViewItemHolder viewItemHolder, int realPosition) {
+        if (!mPageStateRetentionEnabled) {
+            return NO_ID;
+        }
+        if (mHasStableIds) {
+            return viewItemHolder.mItemId;
+        }
+        return isItemPositionStable() && realPosition >= 0 ? realPosition : NO_ID;
+    }
+
+    /**
+     * 设置是否保留已销毁页面的视图状态（默认关闭）。<br>
+     * 开启后页面销毁时保存其视图状态（滚动位置、展开状态等，只有设置了id的View会保存），重新创建时在绑定数据后恢复；
+     * 状态按稳定id（{@link #setHasStableIds(boolean)}）区分，未开启稳定id但{@link #isItemPositionStable()}返回true
+     * 时按索引区分，否则不保留。数量超出{@link #setPageStateBudget(int)}时淘汰最久未使用的状态；
+     * 通过{@link #saveState()}随ViewPager保存，保存时才计算序列化后的大小，使用
+     * {@link #setPersistedPageStateBudget(int, int)}的上限。<br>
+     * 开启后新创建的页面视图会记录绑定数据前的视图状态，从回收池复用时先恢复该状态，不会沿用上一个页面的状态
+     *
+     * @param enabled 是否开启
+     */
+    public void setPageStateRetentionEnabled(boolean enabled) {
+        mPageStateRetentionEnabled = enabled;
+        if (!enabled) {
+            mPageStateStore.clear();
+        }
+    }
+
+    /**
+     * 是否开启了保留已销毁页面的视图状态
+     *
+     * @return 开启返回true
+     */
+    public boolean isPageStateRetentionEnabled() {
+        return mPageStateRetentionEnabled;
+    }
+
+    /**
+     * 设置内存中保留的页面视图状态数量上限，默认20个。内存中的状态不序列化，不计算字节数
+     *
+     * @param maxEntries 数量上限
+     */
+    public void setPageStateBudget(int maxEntries) {
+        mPageStateStore.setBudget(maxEntries);
+    }
+
+    /**
+     * 设置随ViewPager保存的页面视图状态上限，默认8个、32KB。存活页面优先，其次是最近销毁的页面
+     *
+     * @param maxEntries 数量上限
+     * @param maxBytes   序列化后的字节数上限
+     */
+    public void setPersistedPageStateBudget(int maxEntries, int maxBytes) {
+        mPageStateStore.setPersistedBudget(maxEntries, maxBytes);
+    }
+
+    @Nullable
+    @Override
+    public Parcelable saveState() {
+        if (!mPageStateRetentionEnabled) {
+            return null;
+        }
+        List<Long> liveKeys = new ArrayList<>(mViewItemHolders.size());
+        List<SparseArray<Parcelable>> liveStates = new ArrayList<>(mViewItemHolders.size());
+        for (int i = 0; i < mViewItemHolders.size(); i++) {
+            ViewItemHolder viewItemHolder = mViewItemHolders.get(i);
+            long key = getPageStateKey(viewItemHolder, toRealPosition(viewItemHolder.mPosition));
+            if (key == NO_ID) {
+                continue;
+            }
+            SparseArray<Parcelable> state = new SparseArray<>();
+            viewItemHolder.mItemView.saveHierarchyState(state);
+            liveKeys.add(key);
+            liveStates.add(state);
+        }
+        return mPageStateStore.saveState(liveKeys, liveStates);
+    }
+
+    @Override
+    public void restoreState(@Nullable Parcelable state, @Nullable ClassLoader loader) {
+        if (!mPageStateRetentionEnabled || !(state instanceof Bundle)) {
+            return;
+        }
+        Bundle bundle = (Bundle) state;
+        bundle.setClassLoader(loader);
+        mPageStateStore.restoreState(bundle);
     }
 
     @Override
     public int getItemPosition(@NonNull Object object) {
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_GET_ITEM_POSITION);
+        int itemPosition = getItemPositionInternal(object);
+        GraceSystemTrace.endSection();
+        return itemPosition;
+    }
+
+    private int getItemPositionInternal(Object object) {
         ViewItemHolder viewItemHolder = (ViewItemHolder) object;
         Item item = viewItemHolder.mItem;
-        // 判断当前内存中页面数据是否还存在于刷新后的数据集合中，不存在返回POSITION_NONE进行移除
-        int newPos = mItems.indexOf(item);
-        int itemPosition = newPos == -1 ? POSITION_NONE : newPos;
-        int oldPos = viewItemHolder.mPosition;
-        GraceLog.d("getItemPosition: oldPos=" + oldPos + ",newPos=" + newPos);
-        if (itemPosition >= 0) {
-            // 数据索引发生改变
-            if (oldPos != itemPosition) {
-                // 更新索引位置
-                viewItemHolder.mPosition = itemPosition;
+        int oldPos = toRealPosition(viewItemHolder.mPosition);
+        int newPos;
+        // 是否需要重新绑定数据
+        boolean rebind = true;
+        if (mPendingDiffResult != null) {
+            // submitList()刷新：直接使用差异结果，内容未变化的页面不重新绑定
+            newPos = mPendingDiffResult.getNewPosition(oldPos);
+            rebind = mPendingDiffResult.isContentChanged(oldPos);
+            if (newPos != -1) {
+                item = mItems.get(newPos);
+                viewItemHolder.mItem = item;
+            }
+        } else if (isItemPositionStable()) {
+            // 索引即数据标识，索引不变，直接在原页面上重新绑定该索引的新数据
+            newPos = oldPos < mItems.size() ? oldPos : -1;
+            if (newPos != -1) {
+                item = mItems.get(newPos);
+                viewItemHolder.mItem = item;
             }
+        } else if (mHasStableIds) {
+            // 根据稳定id查找，同一id的新数据对象直接在原页面上重新绑定
+            newPos = indexOfItemId(viewItemHolder.mItemId);
+            if (newPos != -1) {
+                item = mItems.get(newPos);
+                viewItemHolder.mItem = item;
+            }
+        } else {
+            // 判断当前内存中页面数据是否还存在于刷新后的数据集合中，不存在返回POSITION_NONE进行移除
+            newPos = indexOfItem(item);
+        }
+        GraceTrace.record(GraceTrace.EVENT_ITEM_POSITION, oldPos, newPos);
+        if (newPos == -1) {
+            return POSITION_NONE;
+        }
+        // 循环模式下换算为虚拟索引
+        int itemPosition = toLoopPosition(viewItemHolder.mPosition, newPos);
+        if (itemPosition == -1) {
+            return POSITION_NONE;
+        }
+        // 数据索引发生改变
+        if (viewItemHolder.mPosition != itemPosition) {
+            // 更新索引位置
+            viewItemHolder.mPosition = itemPosition;
+        }
+        if (rebind) {
             // 当前页面重新绑定数据，以便于刷新视图内容
-            bindItemView(viewItemHolder.mItemView, item, itemPosition, false);
+            rebindItemView(viewItemHolder.mItemView, item, newPos, null);
         }
         return itemPosition;
     }
@@ -89,9 +668,349 @@ public abstract class GracePagerAdapter<Item> extends PagerAdapter {
     @CallSuper
     @Override
     public void notifyDataSetChanged() {
+        clearPrefetchedViewItemHolders();
         mDataSetChanging = true;
+        // 数据可能已经改变，映射需要重新构建
+        mItemPositionIndex.invalidate();
+        GracePagerMetrics metrics = mMetrics;
+        if (metrics != null) {
+            metrics.onDataSetChangeStart();
+        }
         super.notifyDataSetChanged();
+        if (metrics != null) {
+            metrics.onDataSetChangeEnd(true);
+        }
         mDataSetChanging = false;
+        // 存活页面的索引已按当前数据换算
+        mLoopRealCount = isLoopActive() ? mItems.size() : 0;
+        // 释放对数据的引用，下次刷新再重新构建
+        mItemPositionIndex.clear();
+    }
+
+    /**
+     * 提交新的数据集合，与当前数据集合计算差异后刷新：新增的数据创建页面，移除的数据销毁页面，移动的页面更新位置，
+     * 只有内容发生变化（{@link GraceItemCallback#areContentsTheSame(Object, Object)}返回false）的页面才会重新绑定数据。<br>
+     * Adapter会持有新数据集合的拷贝，之后外部对传入集合的修改不会影响Adapter，需要再次调用该方法；
+     * 使用该方法后请勿再修改构造时传入的数据集合并调用{@link #notifyDataSetChanged()}。<br>
+     * 注意：位置变化但内容未变化的页面不会重新绑定，如果视图内容依赖索引，请在
+     * {@link GraceItemCallback#areContentsTheSame(Object, Object)}中考虑。<br>
+     * {@link #isItemPositionStable()}返回true时数据按索引标识，不能按差异刷新，调用会抛出{@link IllegalStateException}
+     *
+     * @param newItems 新数据集合
+     */
+    public void submitList(@NonNull List<Item> newItems) {
+        checkSubmitListAllowed();
+        // 使还在计算中的异步提交失效
+        mMaxScheduledGeneration++;
+        ownItems();
+        List<Item> newSnapshot = new ArrayList<>(newItems);
+        GraceListDiffer.DiffResult diffResult = GraceListDiffer.calculateDiff(mItems, newSnapshot, mItemCallback,
+                mHasStableIds ? mItemIdProvider : null);
+        applyDiffResult(newSnapshot, diffResult);
+    }
+
+    /**
+     * 异步提交新的数据集合：在executor中计算差异，计算完成后在主线程一次性刷新。<br>
+     * 计算过程中如果又提交了新的数据集合，旧的计算结果会被丢弃，只应用最后一次提交的结果。<br>
+     * 注意：{@link GraceItemCallback}以及{@link #getItemId(Object)}会在executor线程中调用
+     *
+     * @param newItems 新数据集合
+     * @param executor 计算差异的线程池
+     * @see #submitList(List)
+     */
+    public void submitList(@NonNull List<Item> newItems, @NonNull Executor executor) {
+        submitList(newItems, executor, null);
+    }
+
+    /**
+     * 异步提交新的数据集合
+     *
+     * @param newItems       新数据集合
+     * @param executor       计算差异的线程池
+     * @param commitCallback 新数据集合被应用后在主线程回调，被更新的提交取代时不会回调
+     * @see #submitList(List, Executor)
+     */
+    public void submitList(@NonNull List<Item> newItems, @NonNull Executor executor,
+                           @Nullable final Runnable commitCallback) {
+        checkSubmitListAllowed();
+        final int runGeneration = ++mMaxScheduledGeneration;
+        ownItems();
+        final List<Item> oldSnapshot = mItems;
+        final List<Item> newSnapshot = new ArrayList<>(newItems);
+        final GraceItemCallback<Item> itemCallback = mItemCallback;
+        final GraceListDiffer.ItemIdProvider<Item> idProvider = mHasStableIds ? mItemIdProvider : null;
+        if (mMainThreadHandler == null) {
+            mMainThreadHandler = new Handler(Looper.getMainLooper());
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final GraceListDiffer.DiffResult diffResult =
+                        GraceListDiffer.calculateDiff(oldSnapshot, newSnapshot, itemCallback, idProvider);
+                mMainThreadHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // 期间有更新的提交，或者数据已被替换，丢弃该结果
+                        if (runGeneration != mMaxScheduledGeneration || mItems != oldSnapshot) {
+                            return;
+                        }
+                        applyDiffResult(newSnapshot, diffResult);
+                        if (commitCallback != null) {
+                            commitCallback.run();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    // 构造时传入的集合可能被外部修改，拷贝一份作为差异计算的基准
+    private void ownItems() {
+        if (!mItemsOwned) {
+            mItems = new ArrayList<>(mItems);
+            mItemsOwned = true;
+        }
+    }
+
+    private void checkSubmitListAllowed() {
+        if (isItemPositionStable()) {
+            throw new IllegalStateException("submitList() is not supported when isItemPositionStable() returns true, "
+                    + "update the data source and call notifyDataSetChanged() instead");
+        }
+        if (mItemCallback == null) {
+            throw new IllegalStateException("submitList() requires a GraceItemCallback, "
+                    + "use GracePagerAdapter(List, GraceItemCallback) or setItemCallback()");
+        }
+    }
+
+    // 应用差异结果，刷新页面
+    private void applyDiffResult(List<Item> newSnapshot, GraceListDiffer.DiffResult diffResult) {
+        clearPrefetchedViewItemHolders();
+        mItems = newSnapshot;
+        mItemsOwned = true;
+        if (!diffResult.hasStructuralChanges()) {
+            // 没有结构变化，页面位置都不变，无需ViewPager重新计算所有页面位置，直接刷新内容变化的页面
+            if (diffResult.getChangedCount() > 0) {
+                GracePagerMetrics metrics = mMetrics;
+                if (metrics != null) {
+                    metrics.onDataSetChangeStart();
+                }
+                rebindChangedItems(diffResult);
+                if (metrics != null) {
+                    metrics.onDataSetChangeEnd(false);
+                }
+            }
+            return;
+        }
+        mPendingDiffResult = diffResult;
+        try {
+            notifyDataSetChanged();
+        } finally {
+            mPendingDiffResult = null;
+        }
+    }
+
+    // 根据差异结果重新绑定内容变化的存活页面（仅用于无结构变化的情况）
+    private void rebindChangedItems(GraceListDiffer.DiffResult diffResult) {
+        for (int i = 0; i < mViewItemHolders.size(); i++) {
+            ViewItemHolder viewItemHolder = mViewItemHolders.get(i);
+            int position = toRealPosition(viewItemHolder.mPosition);
+            Item item = mItems.get(position);
+            viewItemHolder.mItem = item;
+            if (diffResult.isContentChanged(position)) {
+                rebindItemView(viewItemHolder.mItemView, item, position, null);
+            }
+        }
+    }
+
+    // 存活页面重新绑定数据，payloads为null时调用完整绑定
+    private void rebindItemView(View itemView, Item item, int position, List<Object> payloads) {
+        long startNs = mMetrics != null ? System.nanoTime() : 0;
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_BIND_ITEM_VIEW);
+        if (payloads == null) {
+            bindItemView(itemView, item, position, false);
+        } else {
+            bindItemView(itemView, item, position, false, payloads);
+        }
+        GraceSystemTrace.endSection();
+        if (mMetrics != null) {
+            mMetrics.recordTiming(GracePagerMetrics.TIMING_BIND_ITEM_VIEW, System.nanoTime() - startNs);
+            mMetrics.onPageRebound();
+        }
+    }
+
+    /**
+     * 通知某个位置的数据内容发生变化，只重新绑定该位置存活的页面，不触发ViewPager的整体刷新流程。<br>
+     * 只适用于内容变化：数据有插入、删除、移动时请调用{@link #notifyDataSetChanged()}或{@link #submitList(List)}
+     *
+     * @param position 索引
+     */
+    public void notifyItemChanged(int position) {
+        notifyItemRangeChanged(position, 1, null);
+    }
+
+    /**
+     * 通知某个位置的数据内容发生变化，携带局部刷新的payload
+     *
+     * @param position 索引
+     * @param payload  局部刷新的信息，会传递给{@link #bindItemView(View, Object, int, boolean, List)}，可为null
+     * @see #notifyItemChanged(int)
+     */
+    public void notifyItemChanged(int position, @Nullable Object payload) {
+        notifyItemRangeChanged(position, 1, payload);
+    }
+
+    /**
+     * 通知一段连续位置的数据内容发生变化
+     *
+     * @param positionStart 起始索引
+     * @param itemCount     数量
+     * @see #notifyItemChanged(int)
+     */
+    public void notifyItemRangeChanged(int positionStart, int itemCount) {
+        notifyItemRangeChanged(positionStart, itemCount, null);
+    }
+
+    /**
+     * 通知一段连续位置的数据内容发生变化，携带局部刷新的payload
+     *
+     * @param positionStart 起始索引
+     * @param itemCount     数量
+     * @param payload       局部刷新的信息，可为null
+     * @see #notifyItemChanged(int)
+     */
+    public void notifyItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+        if (itemCount <= 0) {
+            return;
+        }
+        clearPrefetchedViewItemHolders();
+        GracePagerMetrics metrics = mMetrics;
+        if (metrics != null) {
+            metrics.onDataSetChangeStart();
+        }
+        List<Object> payloads = null;
+        int positionEnd = positionStart + itemCount;
+        for (int i = 0; i < mViewItemHolders.size(); i++) {
+            ViewItemHolder viewItemHolder = mViewItemHolders.get(i);
+            int position = toRealPosition(viewItemHolder.mPosition);
+            if (position < positionStart || position >= positionEnd) {
+                continue;
+            }
+            if (payloads == null) {
+                payloads = payload == null ? Collections.emptyList() : Collections.singletonList(payload);
+            }
+            Item item = mItems.get(position);
+            viewItemHolder.mItem = item;
+            rebindItemView(viewItemHolder.mItemView, item, position, payloads);
+        }
+        if (metrics != null) {
+            metrics.onDataSetChangeEnd(false);
+        }
+    }
+
+    /**
+     * 设置{@link #submitList(List)}使用的数据比较回调。<br>
+     * 当前数据集合会被拷贝作为差异计算的基准，之后对原集合的修改不会生效，需通过{@link #submitList(List)}更新。<br>
+     * {@link #isItemPositionStable()}返回true时不能使用，调用会抛出{@link IllegalStateException}
+     *
+     * @param itemCallback 数据比较回调
+     */
+    public void setItemCallback(@NonNull GraceItemCallback<Item> itemCallback) {
+        if (isItemPositionStable()) {
+            throw new IllegalStateException(
+                    "setItemCallback() is not supported when isItemPositionStable() returns true");
+        }
+        mItemCallback = itemCallback;
+        ownItems();
+    }
+
+    /**
+     * 设置是否使用稳定id标识数据（默认关闭）。开启后通过{@link #getItemId(Object)}判断是否为同一个数据，
+     * 刷新后id相同的数据即使是新的对象，也会在原页面上重新绑定，而不会销毁后重新创建页面。<br>
+     * 需要在设置给ViewPager之前调用
+     *
+     * @param hasStableIds 是否使用稳定id
+     */
+    public void setHasStableIds(boolean hasStableIds) {
+        if (!mViewItemHolders.isEmpty()) {
+            throw new IllegalStateException("Cannot change whether this adapter has "
+                    + "stable IDs while pages are alive.");
+        }
+        mHasStableIds = hasStableIds;
+    }
+
+    /**
+     * 是否使用稳定id标识数据
+     *
+     * @return 使用返回true
+     */
+    public boolean hasStableIds() {
+        return mHasStableIds;
+    }
+
+    /**
+     * 获取数据的稳定id，开启{@link #setHasStableIds(boolean)}后使用；同一数据在多次刷新间应返回相同的id，
+     * 不同数据的id不能重复。未开启时通过数据的equals()、hashCode()判断是否为同一个数据，两者需要一致
+     *
+     * @param item 数据
+     * @return 数据id，默认返回{@link #NO_ID}
+     */
+    protected long getItemId(Item item) {
+        return NO_ID;
+    }
+
+    /**
+     * 根据数据id查找在数据集合中的索引，刷新过程中存活页面较多时使用映射
+     *
+     * @param itemId 数据id
+     * @return 未找到返回-1
+     */
+    private int indexOfItemId(long itemId) {
+        // 非刷新过程中调用，数据集合随时可能被修改，不使用映射
+        int alivePageCount = mDataSetChanging ? mViewItemHolders.size() : 0;
+        return mItemPositionIndex.indexOfItemId(mItems, itemId, mItemIdProvider, alivePageCount);
+    }
+
+    /**
+     * 查找数据在数据集合中的索引，刷新过程中存活页面较多时使用映射；数据类型需要正确实现equals()和hashCode()
+     *
+     * @param item 数据
+     * @return 未找到返回-1
+     */
+    private int indexOfItem(Item item) {
+        if (!mDataSetChanging) {
+            // 非刷新过程中调用，数据集合随时可能被修改，不使用映射
+            return mItems.indexOf(item);
+        }
+        return mItemPositionIndex.indexOfItem(mItems, item, mViewItemHolders.size());
+    }
+
+    // 记录holder并关联到页面视图上，以便O(1)查找
+    private void addViewItemHolder(ViewItemHolder viewItemHolder) {
+        viewItemHolder.mIndex = mViewItemHolders.size();
+        mViewItemHolders.add(viewItemHolder);
+        viewItemHolder.mItemView.setTag(R.id.gvp_item_holder, viewItemHolder);
+    }
+
+    // 移除holder，用最后一个元素填补空位，避免列表移动元素
+    private void removeViewItemHolder(ViewItemHolder viewItemHolder) {
+        if (!isAliveViewItemHolder(viewItemHolder)) {
+            return;
+        }
+        int index = viewItemHolder.mIndex;
+        ViewItemHolder last = mViewItemHolders.remove(mViewItemHolders.size() - 1);
+        if (last != viewItemHolder) {
+            last.mIndex = index;
+            mViewItemHolders.set(index, last);
+        }
+        viewItemHolder.mIndex = -1;
+        viewItemHolder.mItemView.setTag(R.id.gvp_item_holder, null);
+    }
+
+    // holder是否为当前Adapter存活的页面
+    private boolean isAliveViewItemHolder(ViewItemHolder viewItemHolder) {
+        int index = viewItemHolder.mIndex;
+        return index >= 0 && index < mViewItemHolders.size() && mViewItemHolders.get(index) == viewItemHolder;
     }
 
     // 负责持有视图、数据的对应关系
@@ -99,11 +1018,19 @@ public abstract class GracePagerAdapter<Item> extends PagerAdapter {
         private Item mItem;
         private View mItemView;
         private int mPosition;
+        private int mViewType;
+        // 数据稳定id，未开启稳定id时为NO_ID
+        private long mItemId = NO_ID;
+        // 在mViewItemHolders中的索引
+        private int mIndex = -1;
+        // 是否因内存不足释放了资源
+        private boolean mResourcesReleased;
 
-        ViewItemHolder(Item item, View itemView, int position) {
+        ViewItemHolder(Item item, View itemView, int position, int viewType) {
             mItem = item;
             mItemView = itemView;
             mPosition = position;
+            mViewType = viewType;
         }
     }
 
@@ -124,23 +1051,213 @@ public abstract class GracePagerAdapter<Item> extends PagerAdapter {
      * @param itemView 视图
      * @param item     数据
      * @param position 索引
-     * @param first    是否为首次绑定调用，视图创建后首次绑定该值为true；数据刷新时调用为false
+     * @param first    是否为首次绑定调用，视图创建后首次绑定该值为true；复用回收池中的视图以及数据刷新时调用为false
      */
     protected abstract void bindItemView(@NonNull View itemView, Item item, int position, boolean first);
 
     /**
-     * 获取页面视图对应的数据索引
+     * 给ItemView绑定数据，支持局部刷新。通过{@link #notifyItemChanged(int, Object)}等方法刷新时调用，
+     * payloads为空时应完整绑定；默认直接调用{@link #bindItemView(View, Object, int, boolean)}
      *
-     * @param page 页面视图
-     * @return 未找到返回-1
+     * @param itemView 视图
+     * @param item     数据
+     * @param position 索引
+     * @param first    是否为首次绑定调用
+     * @param payloads 局部刷新的信息，不为null
+     */
+    protected void bindItemView(@NonNull View itemView, Item item, int position, boolean first,
+                                @NonNull List<Object> payloads) {
+        bindItemView(itemView, item, position, first);
+    }
+
+    /**
+     * 数据的索引是否稳定，即刷新后同一索引仍代表同一数据（如按索引分段加载的数据）。返回true时刷新不再查找数据的新索引，
+     * 页面保持原索引并重新绑定该索引的新数据，超出数量的页面被移除，并且不能使用{@link #submitList(List)}；默认为false
+     *
+     * @return 稳定返回true
+     */
+    protected boolean isItemPositionStable() {
+        return false;
+    }
+
+    /**
+     * 获取页面的视图类型，相同类型的页面视图才会被复用，默认都为同一种类型
+     *
+     * @param item     数据
+     * @param position 索引
+     * @return 视图类型
+     */
+    protected int getItemViewType(Item item, int position) {
+        return 0;
+    }
+
+    /**
+     * 页面视图被放入回收池后回调，可在此释放视图持有的资源（如图片）
+     *
+     * @param itemView 视图
+     * @param item     视图之前绑定的数据
+     */
+    protected void onItemViewRecycled(@NonNull View itemView, Item item) {
+    }
+
+    /**
+     * 内存不足时，屏幕外的存活页面回调，可在此释放页面持有的大块资源（如图片），页面仍保留在ViewPager中。<br>
+     * 需要配合{@link GraceViewPager#setMemoryTrimEnabled(boolean)}使用
+     *
+     * @param itemView 视图
+     * @param item     数据
+     * @param position 索引
+     * @see #onRestoreItemResources(View, Object, int)
+     */
+    protected void onReleaseItemResources(@NonNull View itemView, Item item, int position) {
+    }
+
+    /**
+     * 释放过资源的页面即将进入屏幕，或者内存恢复正常时回调，在此重新加载{@link #onReleaseItemResources}中释放的资源。
+     * 释放期间页面可能已被重新绑定过
+     *
+     * @param itemView 视图
+     * @param item     数据
+     * @param position 索引
+     */
+    protected void onRestoreItemResources(@NonNull View itemView, Item item, int position) {
+    }
+
+    /**
+     * 预创建页面视图时回调，在子线程中调用，需要预创建时重写。<br>
+     * 注意：只能创建不依赖主线程的视图（如构造时创建Handler的控件无法在子线程创建）；
+     * 该方法创建的视图在首次绑定时first为true
+     *
+     * @param container 容器，即ViewPager，仅用于生成LayoutParams，不要修改
+     * @param viewType  视图类型
+     * @return 视图，返回null表示该类型不支持预创建
+     * @see #setPreInflateCount(int, int, Executor)
+     */
+    @Nullable
+    @WorkerThread
+    protected View onPreInflateItemView(@NonNull ViewGroup container, int viewType) {
+        return null;
+    }
+
+    /**
+     * 设置某种视图类型需要预创建的页面视图数量。在executor中调用{@link #onPreInflateItemView(ViewGroup, int)}
+     * 预先创建视图，创建页面时优先使用，避免在滑动过程中inflate布局；被取用后会在主线程空闲时补充。<br>
+     * Adapter设置给ViewPager后开始预创建
+     *
+     * @param viewType 视图类型
+     * @param count    数量，0表示不预创建
+     * @param executor 创建视图的线程池，多次调用时只使用第一次传入的线程池
      */
-    public int getPageViewPosition(View page) {
-        for (ViewItemHolder viewItemHolder : mViewItemHolders) {
-            if (viewItemHolder.mItemView == page) {
-                return viewItemHolder.mPosition;
+    public void setPreInflateCount(int viewType, int count, @NonNull Executor executor) {
+        if (mViewPreInflater == null) {
+            mViewPreInflater = new GraceViewPreInflater(new GraceViewPreInflater.Factory() {
+                @Override
+                public View onPreInflate(ViewGroup container, int viewType) {
+                    return onPreInflateItemView(container, viewType);
+                }
+            }, executor);
+        }
+        mViewPreInflater.setTargetCount(viewType, count);
+    }
+
+    // 进入/退出内存紧张状态，由GraceViewPager调用：紧张时清空回收池、预创建的视图以及预取的页面，并暂停缓存
+    void setMemoryTrimmed(boolean trimmed) {
+        mRecycledViewPool.setTrimmed(trimmed);
+        if (mViewPreInflater != null) {
+            mViewPreInflater.setSuspended(trimmed);
+        }
+        if (trimmed) {
+            clearPrefetchedViewItemHolders();
+            mRecycledViewPool.clear();
+            return;
+        }
+        for (int i = 0; i < mViewItemHolders.size(); i++) {
+            restoreItemResources(mViewItemHolders.get(i));
+        }
+    }
+
+    // 释放页面的资源，由GraceViewPager在内存紧张时对屏幕外的页面调用
+    void releasePageResources(View page) {
+        ViewItemHolder viewItemHolder = getAliveViewItemHolder(page);
+        if (viewItemHolder == null || viewItemHolder.mResourcesReleased) {
+            return;
+        }
+        viewItemHolder.mResourcesReleased = true;
+        onReleaseItemResources(viewItemHolder.mItemView, viewItemHolder.mItem,
+                toRealPosition(viewItemHolder.mPosition));
+    }
+
+    // 页面资源是否已释放
+    boolean isPageResourcesReleased(View page) {
+        ViewItemHolder viewItemHolder = getAliveViewItemHolder(page);
+        return viewItemHolder != null && viewItemHolder.mResourcesReleased;
+    }
+
+    // 恢复页面的资源，由GraceViewPager在页面进入屏幕前调用
+    void restorePageResources(View page) {
+        ViewItemHolder viewItemHolder = getAliveViewItemHolder(page);
+        if (viewItemHolder != null) {
+            restoreItemResources(viewItemHolder);
+        }
+    }
+
+    private void restoreItemResources(ViewItemHolder viewItemHolder) {
+        if (!viewItemHolder.mResourcesReleased) {
+            return;
+        }
+        viewItemHolder.mResourcesReleased = false;
+        onRestoreItemResources(viewItemHolder.mItemView, viewItemHolder.mItem,
+                toRealPosition(viewItemHolder.mPosition));
+    }
+
+    // 获取页面视图对应的存活holder
+    private ViewItemHolder getAliveViewItemHolder(View page) {
+        Object tag = page.getTag(R.id.gvp_item_holder);
+        if (tag instanceof GracePagerAdapter.ViewItemHolder) {
+            ViewItemHolder viewItemHolder = (ViewItemHolder) tag;
+            // 视图可能属于共享回收池的其他Adapter
+            if (isAliveViewItemHolder(viewItemHolder)) {
+                return viewItemHolder;
             }
         }
-        return -1;
+        return null;
+    }
+
+    // 设置运行指标，由GraceViewPager调用
+    void setMetrics(@Nullable GracePagerMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    /**
+     * 获取页面视图回收池，通过{@link GraceRecycledViewPool#setMaxRecycledViews(int, int)}等方法设置缓存上限后
+     * 开启复用（默认不缓存）；也可以获取命中、未命中计数
+     *
+     * @return 回收池
+     */
+    @NonNull
+    public GraceRecycledViewPool getRecycledViewPool() {
+        return mRecycledViewPool;
+    }
+
+    /**
+     * 设置页面视图回收池，可用于多个相同页面布局的Adapter共享回收池
+     *
+     * @param recycledViewPool 回收池
+     */
+    public void setRecycledViewPool(@NonNull GraceRecycledViewPool recycledViewPool) {
+        mRecycledViewPool = recycledViewPool;
+    }
+
+    /**
+     * 获取页面视图对应的索引（循环模式下为ViewPager中的虚拟索引，可通过{@link #getRealPosition(int)}换算）
+     *
+     * @param page 页面视图
+     * @return 未找到返回-1
+     */
+    @Override
+    public int getPageViewPosition(@NonNull View page) {
+        ViewItemHolder viewItemHolder = getAliveViewItemHolder(page);
+        return viewItemHolder == null ? -1 : viewItemHolder.mPosition;
     }
 
     /**
@@ -148,6 +1265,7 @@ public abstract class GracePagerAdapter<Item> extends PagerAdapter {
      *
      * @return 刷新中返回true
      */
+    @Override
     public boolean isDataSetChanging() {
         return mDataSetChanging;
     }
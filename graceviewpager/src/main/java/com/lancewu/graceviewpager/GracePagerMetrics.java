@@ -0,0 +1,179 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * ViewPager运行指标。<br>
+ * 记录库内部主要耗时环节的耗时直方图，以及页面创建、销毁、重新绑定的次数，可通过{@link #snapshot(GracePagerMetrics)}
+ * 或者{@link OnDataSetChangedListener}转发给统计系统。记录过程不产生任何对象，只允许在主线程访问。<br>
+ * 通过{@link GraceViewPager#setMetricsEnabled(boolean)}开启。
+ */
+public final class GracePagerMetrics {
+
+    /**
+     * 创建页面视图：{@link GracePagerAdapter#instantiateItemView}
+     */
+    public static final int TIMING_INSTANTIATE_ITEM_VIEW = 0;
+    /**
+     * 绑定页面数据：{@link GracePagerAdapter#bindItemView}
+     */
+    public static final int TIMING_BIND_ITEM_VIEW = 1;
+    /**
+     * 一次数据刷新中所有页面的位置计算（包含页面的创建、销毁和重新绑定）
+     */
+    public static final int TIMING_ITEM_POSITION_PASS = 2;
+    /**
+     * 计算页面尺寸：{@link GraceMultiPagePlugin#determinePageSize(int, int)}
+     */
+    public static final int TIMING_DETERMINE_PAGE_SIZE = 3;
+    /**
+     * 页面动画：{@link GracePageTransformer#transformPage}；在GraceViewPager中批量处理时，为一次滚动所有页面的总耗时
+     */
+    public static final int TIMING_TRANSFORM_PAGE = 4;
+    /**
+     * 耗时类型数量
+     */
+    public static final int TIMING_COUNT = 5;
+
+    /**
+     * 数据刷新完成监听，{@link GracePagerAdapter#notifyDataSetChanged()}、
+     * {@link GracePagerAdapter#notifyItemRangeChanged(int, int, Object)}以及只有内容变化的
+     * {@link GracePagerAdapter#submitList(java.util.List)}都会回调
+     */
+    public interface OnDataSetChangedListener {
+        /**
+         * 一次数据刷新完成，在主线程回调
+         *
+         * @param metrics   指标
+         * @param created   本次刷新创建的页面数量
+         * @param destroyed 本次刷新销毁的页面数量
+         * @param rebound   本次刷新重新绑定数据的页面数量
+         */
+        void onDataSetChanged(@NonNull GracePagerMetrics metrics, int created, int destroyed, int rebound);
+    }
+
+    private final GraceHistogram[] mHistograms = new GraceHistogram[TIMING_COUNT];
+    private long mPagesCreated;
+    private long mPagesDestroyed;
+    private long mPagesRebound;
+    // 本次数据刷新开始时的计数
+    private long mDataChangeCreatedStart;
+    private long mDataChangeDestroyedStart;
+    private long mDataChangeReboundStart;
+    private long mDataChangeStartNs;
+    private OnDataSetChangedListener mOnDataSetChangedListener;
+
+    public GracePagerMetrics() {
+        for (int i = 0; i < TIMING_COUNT; i++) {
+            mHistograms[i] = new GraceHistogram();
+        }
+    }
+
+    /**
+     * 获取某种耗时的直方图
+     *
+     * @param timing 耗时类型，如{@link #TIMING_BIND_ITEM_VIEW}
+     * @return 直方图
+     */
+    @NonNull
+    public GraceHistogram getHistogram(int timing) {
+        return mHistograms[timing];
+    }
+
+    /**
+     * 累计创建的页面数量
+     *
+     * @return 数量
+     */
+    public long getPagesCreated() {
+        return mPagesCreated;
+    }
+
+    /**
+     * 累计销毁的页面数量
+     *
+     * @return 数量
+     */
+    public long getPagesDestroyed() {
+        return mPagesDestroyed;
+    }
+
+    /**
+     * 累计重新绑定数据的页面数量
+     *
+     * @return 数量
+     */
+    public long getPagesRebound() {
+        return mPagesRebound;
+    }
+
+    public void setOnDataSetChangedListener(@Nullable OnDataSetChangedListener listener) {
+        mOnDataSetChangedListener = listener;
+    }
+
+    /**
+     * 复制当前指标到另一个实例，可复用同一个实例避免分配
+     *
+     * @param out 目标实例
+     * @return out
+     */
+    @NonNull
+    public GracePagerMetrics snapshot(@NonNull GracePagerMetrics out) {
+        for (int i = 0; i < TIMING_COUNT; i++) {
+            mHistograms[i].copyTo(out.mHistograms[i]);
+        }
+        out.mPagesCreated = mPagesCreated;
+        out.mPagesDestroyed = mPagesDestroyed;
+        out.mPagesRebound = mPagesRebound;
+        return out;
+    }
+
+    /**
+     * 清空所有指标
+     */
+    public void reset() {
+        for (int i = 0; i < TIMING_COUNT; i++) {
+            mHistograms[i].reset();
+        }
+        mPagesCreated = 0;
+        mPagesDestroyed = 0;
+        mPagesRebound = 0;
+    }
+
+    void recordTiming(int timing, long durationNs) {
+        mHistograms[timing].record(durationNs);
+    }
+
+    void onPageCreated() {
+        mPagesCreated++;
+    }
+
+    void onPageDestroyed() {
+        mPagesDestroyed++;
+    }
+
+    void onPageRebound() {
+        mPagesRebound++;
+    }
+
+    void onDataSetChangeStart() {
+        mDataChangeCreatedStart = mPagesCreated;
+        mDataChangeDestroyedStart = mPagesDestroyed;
+        mDataChangeReboundStart = mPagesRebound;
+        mDataChangeStartNs = System.nanoTime();
+    }
+
+    // positionPass：是否经过了ViewPager的位置计算（notifyDataSetChanged()），只重新绑定内容时不记录该耗时
+    void onDataSetChangeEnd(boolean positionPass) {
+        if (positionPass) {
+            recordTiming(TIMING_ITEM_POSITION_PASS, System.nanoTime() - mDataChangeStartNs);
+        }
+        if (mOnDataSetChangedListener != null) {
+            mOnDataSetChangedListener.onDataSetChanged(this,
+                    (int) (mPagesCreated - mDataChangeCreatedStart),
+                    (int) (mPagesDestroyed - mDataChangeDestroyedStart),
+                    (int) (mPagesRebound - mDataChangeReboundStart));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * 页面视图回收池。<br>
+ * {@link GracePagerAdapter#destroyItem}移除的页面视图按视图类型缓存起来，下次创建同类型页面时直接复用，
+ * 避免重复inflate布局；每种类型缓存数量有上限，超出上限的视图直接丢弃。<br>
+ * 只允许在主线程访问。
+ */
+public class GraceRecycledViewPool {
+
+    // 默认每种类型缓存上限，0表示不缓存
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 0;
+
+    // 视图类型-缓存 映射
+    private SparseArray<ScrapData> mScrap = new SparseArray<>();
+    // 未单独设置上限的类型使用的缓存上限
+    private int mDefaultMaxRecycledViews = DEFAULT_MAX_RECYCLED_VIEWS;
+    // 命中次数
+    private int mHitCount;
+    // 未命中次数
+    private int mMissCount;
+    // 内存紧张时暂停缓存的次数，可能被多个Adapter共享
+    private int mTrimmedCount;
+
+    /**
+     * 设置未单独指定上限的视图类型的缓存上限（默认为0，即不缓存）
+     *
+     * @param max 缓存上限，小于0会被当做0处理
+     */
+    public void setDefaultMaxRecycledViews(int max) {
+        mDefaultMaxRecycledViews = Math.max(0, max);
+        for (int i = 0; i < mScrap.size(); i++) {
+            ScrapData scrapData = mScrap.valueAt(i);
+            if (!scrapData.mMaxSpecified) {
+                scrapData.mMax = mDefaultMaxRecycledViews;
+                scrapData.trim();
+            }
+        }
+    }
+
+    /**
+     * 设置某种视图类型的缓存上限
+     *
+     * @param viewType 视图类型
+     * @param max      缓存上限，小于0会被当做0处理
+     */
+    public void setMaxRecycledViews(int viewType, int max) {
+        ScrapData scrapData = getScrapDataForType(viewType);
+        scrapData.mMax = Math.max(0, max);
+        scrapData.mMaxSpecified = true;
+        scrapData.trim();
+    }
+
+    /**
+     * 取出一个缓存的视图
+     *
+     * @param viewType 视图类型
+     * @return 没有缓存返回null
+     */
+    @Nullable
+    public View getRecycledView(int viewType) {
+        ScrapData scrapData = mScrap.get(viewType);
+        if (scrapData != null && !scrapData.mScrapViews.isEmpty()) {
+            mHitCount++;
+            ArrayList<View> scrapViews = scrapData.mScrapViews;
+            return scrapViews.remove(scrapViews.size() - 1);
+        }
+        mMissCount++;
+        return null;
+    }
+
+    /**
+     * 缓存视图，视图必须已经从父容器中移除
+     *
+     * @param viewType 视图类型
+     * @param view     视图
+     * @return 超出上限未被缓存时返回false
+     */
+    public boolean putRecycledView(int viewType, @NonNull View view) {
+        if (mTrimmedCount > 0) {
+            return false;
+        }
+        ScrapData scrapData = getScrapDataForType(viewType);
+        if (scrapData.mScrapViews.size() >= scrapData.mMax) {
+            return false;
+        }
+        scrapData.mScrapViews.add(view);
+        return true;
+    }
+
+    /**
+     * 获取某种视图类型当前缓存的数量
+     *
+     * @param viewType 视图类型
+     * @return 缓存数量
+     */
+    public int getRecycledViewCount(int viewType) {
+        ScrapData scrapData = mScrap.get(viewType);
+        return scrapData == null ? 0 : scrapData.mScrapViews.size();
+    }
+
+    /**
+     * 清空所有缓存的视图（上限设置保留）
+     */
+    public void clear() {
+        for (int i = 0; i < mScrap.size(); i++) {
+            mScrap.valueAt(i).mScrapViews.clear();
+        }
+    }
+
+    /**
+     * 获取命中次数，即创建页面时从缓存中取到视图的次数
+     *
+     * @return 命中次数
+     */
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * 获取未命中次数，即创建页面时需要重新创建视图的次数
+     *
+     * @return 未命中次数
+     */
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * 重置命中、未命中计数
+     */
+    public void resetCounters() {
+        mHitCount = 0;
+        mMissCount = 0;
+    }
+
+    /**
+     * 内存紧张时暂停缓存，由Adapter调用，进入、退出需成对调用
+     *
+     * @param trimmed 是否进入内存紧张状态
+     */
+    void setTrimmed(boolean trimmed) {
+        mTrimmedCount = Math.max(0, mTrimmedCount + (trimmed ? 1 : -1));
+    }
+
+    /**
+     * 记录一次创建视图的耗时，用于预估之后创建的耗时
+     *
+     * @param viewType     视图类型
+     * @param createTimeNs 耗时，纳秒
+     */
+    void factorInCreateTime(int viewType, long createTimeNs) {
+        ScrapData scrapData = getScrapDataForType(viewType);
+        scrapData.mCreateRunningAverageNs = runningAverage(scrapData.mCreateRunningAverageNs, createTimeNs);
+    }
+
+    /**
+     * 记录一次绑定数据的耗时，用于预估之后绑定的耗时
+     *
+     * @param viewType   视图类型
+     * @param bindTimeNs 耗时，纳秒
+     */
+    void factorInBindTime(int viewType, long bindTimeNs) {
+        ScrapData scrapData = getScrapDataForType(viewType);
+        scrapData.mBindRunningAverageNs = runningAverage(scrapData.mBindRunningAverageNs, bindTimeNs);
+    }
+
+    /**
+     * 预估在截止时间前能否完成创建视图
+     *
+     * @param viewType        视图类型
+     * @param approxCurrentNs 当前时间，纳秒
+     * @param deadlineNs      截止时间，纳秒
+     * @return 能完成返回true
+     */
+    boolean willCreateInTime(int viewType, long approxCurrentNs, long deadlineNs) {
+        long expectedDurationNs = getScrapDataForType(viewType).mCreateRunningAverageNs;
+        return expectedDurationNs == 0 || (approxCurrentNs + expectedDurationNs < deadlineNs);
+    }
+
+    /**
+     * 预估在截止时间前能否完成绑定数据
+     *
+     * @param viewType        视图类型
+     * @param approxCurrentNs 当前时间，纳秒
+     * @param deadlineNs      截止时间，纳秒
+     * @return 能完成返回true
+     */
+    boolean willBindInTime(int viewType, long approxCurrentNs, long deadlineNs) {
+        long expectedDurationNs = getScrapDataForType(viewType).mBindRunningAverageNs;
+        return expectedDurationNs == 0 || (approxCurrentNs + expectedDurationNs < deadlineNs);
+    }
+
+    private static long runningAverage(long oldAverage, long newValue) {
+        if (oldAverage == 0) {
+            return newValue;
+        }
+        return (oldAverage / 4 * 3) + (newValue / 4);
+    }
+
+    private ScrapData getScrapDataForType(int viewType) {
+        ScrapData scrapData = mScrap.get(viewType);
+        if (scrapData == null) {
+            scrapData = new ScrapData(mDefaultMaxRecycledViews);
+            mScrap.put(viewType, scrapData);
+        }
+        return scrapData;
+    }
+
+    // 某种视图类型的缓存
+    private static class ScrapData {
+        private ArrayList<View> mScrapViews = new ArrayList<>();
+        private int mMax;
+        // 是否单独设置了上限
+        private boolean mMaxSpecified;
+        // 创建、绑定的平均耗时，用于预取时判断剩余时间是否足够
+        private long mCreateRunningAverageNs;
+        private long mBindRunningAverageNs;
+
+        ScrapData(int max) {
+            mMax = max;
+        }
+
+        void trim() {
+            while (mScrapViews.size() > mMax) {
+                mScrapViews.remove(mScrapViews.size() - 1);
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.lancewu.graceviewpager;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
 import android.os.Parcel;
 import android.os.Parcelable;
@@ -13,6 +16,8 @@ import android.support.v4.view.ViewPager;
 import android.util.AttributeSet;
 import android.view.View;
 
+import com.lancewu.graceviewpager.util.GraceSystemTrace;
+
 /**
  * Created by wrs on 2018/8/9.<br>
  * 自定义ViewPager，在ViewPager原有基础上，提供拓展功能和修复问题。<br>
@@ -37,6 +42,32 @@ public class GraceViewPager extends ViewPager {
     private GraceViewPagerSupport.SizeChangeHandler mSizeChangeHandler;
     // 多Page支持插件
     private GraceMultiPagePlugin mMultiPagePlugin;
+    // 页面预取器，未开启时为null
+    private GracePagePrefetcher mPagePrefetcher;
+    // 每次滑动最多预取的页面数量
+    private int mPagePrefetchItemCount = 1;
+    // 上一次的滚动位置（页面索引+偏移），用于判断滑动方向
+    private float mLastScrollPosition = -1;
+    // 页面动画
+    private GracePageTransformer mGracePageTransformer;
+    // 运行指标，未开启时为null
+    private GracePagerMetrics mMetrics;
+    // 当前设置的页面动画及其参数，开关自动硬件层时重新设置
+    private PageTransformer mPageTransformer;
+    private boolean mPageTransformerReverseDrawingOrder;
+    private int mPageTransformerLayerType = View.LAYER_TYPE_HARDWARE;
+    // 自动硬件层管理，未开启时为null
+    private GracePageLayerManager mPageLayerManager;
+    // 同时存在的硬件层页面上限
+    private int mMaxLayeredPages = GracePageLayerManager.DEFAULT_MAX_LAYERED_PAGES;
+    // 是否跳过可见区域外页面的动画、绘制
+    private boolean mPageCullingEnabled;
+    // 计算页面绘制区域的临时对象
+    private final RectF mTempPageBounds = new RectF();
+    // 内存不足处理，未开启时为null
+    private GraceMemoryTrimmer mMemoryTrimmer;
+    // 外部设置的offscreenPageLimit，内存紧张时实际值可能更小
+    private int mOffscreenPageLimit = 1;
 
     public GraceViewPager(@NonNull Context context) {
         this(context, null);
@@ -46,6 +77,41 @@ public class GraceViewPager extends ViewPager {
         super(context, attrs);
         initFromAttributes(context, attrs);
         mSizeChangeHandler = new GraceViewPagerSupport.SizeChangeHandler();
+        addOnPageChangeListener(new SimpleOnPageChangeListener() {
+            @Override
+            public void onPageScrollStateChanged(int state) {
+                if (state == SCROLL_STATE_IDLE) {
+                    // 循环模式下滑动停止后，靠近两端时回到中间
+                    PagerAdapter adapter = getAdapter();
+                    if (adapter instanceof GracePagerAdapter) {
+                        recenterLoop((GracePagerAdapter) adapter);
+                    }
+                }
+            }
+        });
+    }
+
+    // 跳转到数据相同的中间索引，存活页面由adapter直接复用，不刷新数据
+    private void recenterLoop(GracePagerAdapter adapter) {
+        int currentItem = getCurrentItem();
+        int offscreenPageLimit = getOffscreenPageLimit();
+        int targetItem = adapter.getLoopRecenterPosition(currentItem, offscreenPageLimit);
+        if (targetItem < 0) {
+            return;
+        }
+        jumpLoop(adapter, currentItem, targetItem, offscreenPageLimit);
+    }
+
+    // 跳转到数据相同的索引，平移前后存活页面不重叠时直接复用
+    private void jumpLoop(GracePagerAdapter adapter, int currentItem, int targetItem, int offscreenPageLimit) {
+        // 复用的页面不会重新添加，需要重新布局到新的位置；布局前页面动画按页面索引计算position
+        requestLayout();
+        adapter.beginLoopRecenter(currentItem, targetItem, offscreenPageLimit);
+        try {
+            setCurrentItem(targetItem, false);
+        } finally {
+            adapter.endLoopRecenter();
+        }
     }
 
     private void initFromAttributes(Context context, AttributeSet attrs) {
@@ -68,18 +134,256 @@ public class GraceViewPager extends ViewPager {
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_ON_MEASURE);
         int width = MeasureSpec.getSize(widthMeasureSpec);
         int height = MeasureSpec.getSize(heightMeasureSpec);
         mMultiPagePlugin.determinePageSize(width, height);
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        GraceSystemTrace.endSection();
     }
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_ON_LAYOUT);
         super.onLayout(changed, l, t, r, b);
         int width = r - l;
         // 响应宽度变化以便修正滚动位置
         mSizeChangeHandler.onSizeChange(this, width);
+        if (mPageCullingEnabled) {
+            // 布局可能移动页面而不回调onPageScrolled，重新判断
+            transformAndCullPages();
+        }
+        GraceSystemTrace.endSection();
+    }
+
+    @Override
+    protected void onPageScrolled(int position, float offset, int offsetPixels) {
+        super.onPageScrolled(position, offset, offsetPixels);
+        transformAndCullPages();
+        float scrollPosition = position + offset;
+        if (mPagePrefetcher != null && offset != 0 && mLastScrollPosition >= 0
+                && scrollPosition != mLastScrollPosition) {
+            mPagePrefetcher.schedule(scrollPosition > mLastScrollPosition ? 1 : -1);
+        }
+        mLastScrollPosition = scrollPosition;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mMemoryTrimmer != null) {
+            mMemoryTrimmer.register();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility == VISIBLE && mMemoryTrimmer != null) {
+            mMemoryTrimmer.onWindowVisible();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (mMemoryTrimmer != null) {
+            mMemoryTrimmer.unregister();
+        }
+        if (mPagePrefetcher != null) {
+            mPagePrefetcher.cancel();
+        }
+        if (mPageLayerManager != null) {
+            mPageLayerManager.demoteAll();
+        }
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (mPageCullingEnabled && isPageDrawCulled(child)) {
+            return false;
+        }
+        if (mMemoryTrimmer != null && mMemoryTrimmer.isTrimmed()) {
+            PagerAdapter adapter = getAdapter();
+            if (adapter instanceof GracePagerAdapter && isPageVisible(child)
+                    && ((GracePagerAdapter) adapter).isPageResourcesReleased(child)) {
+                // 释放过资源的页面进入可见区域，绘制前恢复
+                ((GracePagerAdapter) adapter).restorePageResources(child);
+            }
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
+    // 页面（考虑平移、缩放后）是否在可见区域内，decor视图总是可见
+    boolean isPageVisible(View child) {
+        return ((LayoutParams) child.getLayoutParams()).isDecor || !isOutsideViewport(child);
+    }
+
+    // 页面（考虑平移、旋转、缩放后）是否完全在可见区域外
+    private boolean isOutsideViewport(View child) {
+        RectF bounds = mTempPageBounds;
+        bounds.set(0, 0, child.getWidth(), child.getHeight());
+        Matrix matrix = child.getMatrix();
+        if (!matrix.isIdentity()) {
+            matrix.mapRect(bounds);
+        }
+        bounds.offset(child.getLeft(), child.getTop());
+        int scrollX = getScrollX();
+        return bounds.right <= scrollX || bounds.left >= scrollX + getWidth();
+    }
+
+    // 批量处理页面动画，开启裁剪时再判断每个页面是否绘制；只在滚动、布局后调用，绘制时不修改页面属性
+    private void transformAndCullPages() {
+        if (mGracePageTransformer != null) {
+            // 一次计算所有页面的position，批量处理动画
+            mGracePageTransformer.transformPagesInBatch(this, mPageCullingEnabled);
+        }
+        if (!mPageCullingEnabled) {
+            return;
+        }
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (((LayoutParams) child.getLayoutParams()).isDecor) {
+                continue;
+            }
+            // 跳过动画的页面保留着旧的属性，不绘制
+            boolean culled = GracePageTransformer.isPageCulled(child) || isOutsideViewport(child);
+            if (culled != isPageDrawCulled(child)) {
+                child.setTag(R.id.gvp_page_draw_culled, culled ? Boolean.TRUE : null);
+            }
+        }
+    }
+
+    private static boolean isPageDrawCulled(View child) {
+        return child.getTag(R.id.gvp_page_draw_culled) != null;
+    }
+
+    /**
+     * 设置是否跳过可见区域外的页面（默认关闭）。<br>
+     * 一屏多页并且offscreenPageLimit较大时，开启后根据修正后的position，完全在可见区域（包括左右padding）外的页面
+     * 不做动画，平移、旋转、缩放后完全在可见区域外的页面不绘制；是否跳过在滚动、布局后判断，页面重新可见时在同一次判断中补上动画。<br>
+     * 注意：如果页面动画会把可见区域外的页面平移到可见区域内，不要开启
+     *
+     * @param enabled 是否开启
+     */
+    public void setPageCullingEnabled(boolean enabled) {
+        if (mPageCullingEnabled == enabled) {
+            return;
+        }
+        mPageCullingEnabled = enabled;
+        // 关闭时补上跳过的动画，开启时判断页面是否绘制
+        transformAndCullPages();
+        invalidate();
+    }
+
+    /**
+     * 是否开启了跳过可见区域外的页面
+     *
+     * @return 开启返回true
+     */
+    public boolean isPageCullingEnabled() {
+        return mPageCullingEnabled;
+    }
+
+    /**
+     * 设置是否响应内存不足（默认关闭）。<br>
+     * 开启后注册{@link android.content.ComponentCallbacks2}，收到
+     * {@link android.content.ComponentCallbacks2#TRIM_MEMORY_RUNNING_LOW}、
+     * {@link android.content.ComponentCallbacks2#TRIM_MEMORY_RUNNING_CRITICAL}或者
+     * {@link android.content.ComponentCallbacks2#TRIM_MEMORY_BACKGROUND}及以上级别时：清空并暂停
+     * {@link GracePagerAdapter}的回收池、预创建的视图以及预取的页面；把实际的offscreenPageLimit降低到刚好容纳可见页面
+     * （至少为1）；对屏幕外的页面回调{@link GracePagerAdapter#onReleaseItemResources}，页面重新可见前回调
+     * {@link GracePagerAdapter#onRestoreItemResources}。收到更低的级别，或者应用回到前台时恢复正常；
+     * 收到{@link android.content.ComponentCallbacks2#TRIM_MEMORY_UI_HIDDEN}时只清空回收池
+     *
+     * @param enabled 是否开启
+     */
+    public void setMemoryTrimEnabled(boolean enabled) {
+        if (enabled == (mMemoryTrimmer != null)) {
+            return;
+        }
+        if (enabled) {
+            mMemoryTrimmer = new GraceMemoryTrimmer(this);
+            if (getWindowToken() != null) {
+                mMemoryTrimmer.register();
+            }
+        } else {
+            GraceMemoryTrimmer memoryTrimmer = mMemoryTrimmer;
+            mMemoryTrimmer = null;
+            memoryTrimmer.release();
+        }
+    }
+
+    /**
+     * 是否开启了响应内存不足
+     *
+     * @return 开启返回true
+     */
+    public boolean isMemoryTrimEnabled() {
+        return mMemoryTrimmer != null;
+    }
+
+    /**
+     * 设置offscreenPageLimit，开启响应内存不足后，内存紧张时实际值可能更小，恢复后使用该值
+     *
+     * @param limit How many pages will be kept offscreen in an idle state.
+     */
+    @Override
+    public void setOffscreenPageLimit(int limit) {
+        mOffscreenPageLimit = limit;
+        updateOffscreenPageLimit();
+    }
+
+    // 根据内存状态设置实际的offscreenPageLimit
+    void updateOffscreenPageLimit() {
+        int limit = mOffscreenPageLimit;
+        if (mMemoryTrimmer != null && mMemoryTrimmer.isTrimmed()) {
+            limit = Math.min(limit, mMemoryTrimmer.getTrimmedOffscreenPageLimit());
+        }
+        if (limit != getOffscreenPageLimit()) {
+            super.setOffscreenPageLimit(limit);
+        }
+    }
+
+    /**
+     * 设置是否开启页面预取（默认关闭，需要配合{@link GracePagerAdapter}使用）。<br>
+     * 开启后，滑动过程中会利用每帧的空闲时间，沿滑动方向提前创建并绑定即将显示的页面，ViewPager创建该页面时直接使用；
+     * 根据以往创建、绑定页面的平均耗时预估，不会超出当前帧的剩余时间
+     *
+     * @param enabled 是否开启
+     */
+    public void setPagePrefetchEnabled(boolean enabled) {
+        if (enabled == (mPagePrefetcher != null)) {
+            return;
+        }
+        if (enabled) {
+            mPagePrefetcher = new GracePagePrefetcher(this);
+            mPagePrefetcher.setPrefetchItemCount(mPagePrefetchItemCount);
+        } else {
+            mPagePrefetcher.cancel();
+            mPagePrefetcher = null;
+        }
+    }
+
+    /**
+     * 是否开启了页面预取
+     *
+     * @return 开启返回true
+     */
+    public boolean isPagePrefetchEnabled() {
+        return mPagePrefetcher != null;
+    }
+
+    /**
+     * 设置每次滑动最多预取的页面数量，默认为1
+     *
+     * @param prefetchItemCount 预取数量，最小为1
+     */
+    public void setPagePrefetchItemCount(int prefetchItemCount) {
+        mPagePrefetchItemCount = Math.max(1, prefetchItemCount);
+        if (mPagePrefetcher != null) {
+            mPagePrefetcher.setPrefetchItemCount(mPagePrefetchItemCount);
+        }
     }
 
     /**
@@ -116,7 +420,7 @@ public class GraceViewPager extends ViewPager {
     @Deprecated
     @Override
     public void setPageTransformer(boolean reverseDrawingOrder, @Nullable PageTransformer transformer) {
-        super.setPageTransformer(reverseDrawingOrder, transformer);
+        applyPageTransformer(reverseDrawingOrder, transformer, View.LAYER_TYPE_HARDWARE);
     }
 
     /**
@@ -134,7 +438,7 @@ public class GraceViewPager extends ViewPager {
     @Deprecated
     @Override
     public void setPageTransformer(boolean reverseDrawingOrder, @Nullable PageTransformer transformer, int pageLayerType) {
-        super.setPageTransformer(reverseDrawingOrder, transformer, pageLayerType);
+        applyPageTransformer(reverseDrawingOrder, transformer, pageLayerType);
     }
 
     /**
@@ -145,7 +449,7 @@ public class GraceViewPager extends ViewPager {
      * @param transformer         PageTransformer that will modify each page's animation properties
      */
     public void setGracePageTransformer(boolean reverseDrawingOrder, @Nullable GracePageTransformer transformer) {
-        super.setPageTransformer(reverseDrawingOrder, transformer);
+        applyPageTransformer(reverseDrawingOrder, transformer, View.LAYER_TYPE_HARDWARE);
     }
 
     /**
@@ -160,7 +464,91 @@ public class GraceViewPager extends ViewPager {
      *                            {@link View#LAYER_TYPE_NONE}.
      */
     public void setGracePageTransformer(boolean reverseDrawingOrder, @Nullable GracePageTransformer transformer, int pageLayerType) {
-        super.setPageTransformer(reverseDrawingOrder, transformer, pageLayerType);
+        applyPageTransformer(reverseDrawingOrder, transformer, pageLayerType);
+    }
+
+    private void applyPageTransformer(boolean reverseDrawingOrder, PageTransformer transformer, int pageLayerType) {
+        onGracePageTransformerChanged(transformer instanceof GracePageTransformer
+                ? (GracePageTransformer) transformer : null);
+        mPageTransformer = transformer;
+        mPageTransformerReverseDrawingOrder = reverseDrawingOrder;
+        mPageTransformerLayerType = pageLayerType;
+        // 开启自动硬件层时由GracePageLayerManager管理，源码不再统一设置
+        super.setPageTransformer(reverseDrawingOrder, transformer,
+                mPageLayerManager != null ? View.LAYER_TYPE_NONE : pageLayerType);
+    }
+
+    /**
+     * 设置是否开启自动硬件层（默认关闭）。<br>
+     * 源码在滑动时把所有页面设置为同一种固定的layerType；开启后只在拖动、惯性滑动时把离当前位置最近的页面设置为
+     * {@link View#LAYER_TYPE_HARDWARE}，数量不超过{@link #setMaxLayeredPages(int)}，停止滑动后恢复为
+     * {@link View#LAYER_TYPE_NONE}；{@link GracePageTransformer#isHardwareLayerRequired(View)}返回false的页面不设置。
+     * 开启后设置页面动画时传入的pageLayerType不再生效
+     *
+     * @param enabled 是否开启
+     */
+    public void setPageLayerAutoEnabled(boolean enabled) {
+        if (enabled == (mPageLayerManager != null)) {
+            return;
+        }
+        if (enabled) {
+            mPageLayerManager = new GracePageLayerManager(this);
+            mPageLayerManager.setPageTransformer(mGracePageTransformer);
+            mPageLayerManager.setMaxLayeredPages(mMaxLayeredPages);
+            addOnPageChangeListener(mPageLayerManager);
+        } else {
+            removeOnPageChangeListener(mPageLayerManager);
+            mPageLayerManager.demoteAll();
+            mPageLayerManager = null;
+        }
+        if (mPageTransformer != null) {
+            applyPageTransformer(mPageTransformerReverseDrawingOrder, mPageTransformer, mPageTransformerLayerType);
+        }
+    }
+
+    /**
+     * 是否开启了自动硬件层
+     *
+     * @return 开启返回true
+     */
+    public boolean isPageLayerAutoEnabled() {
+        return mPageLayerManager != null;
+    }
+
+    /**
+     * 设置自动硬件层开启时，同时存在的硬件层页面上限，默认为3
+     *
+     * @param maxLayeredPages 上限，小于0会被当做0处理
+     */
+    public void setMaxLayeredPages(int maxLayeredPages) {
+        mMaxLayeredPages = Math.max(0, maxLayeredPages);
+        if (mPageLayerManager != null) {
+            mPageLayerManager.setMaxLayeredPages(mMaxLayeredPages);
+        }
+    }
+
+    private void onGracePageTransformerChanged(GracePageTransformer transformer) {
+        boolean detached = mGracePageTransformer != null && mGracePageTransformer != transformer;
+        if (detached) {
+            mGracePageTransformer.setMetrics(null);
+            mGracePageTransformer.setBatchViewPager(null);
+            // 旧的动画跳过的页面标记不会再更新，清除后重新判断是否绘制，否则这些页面一直不绘制
+            for (int i = 0; i < getChildCount(); i++) {
+                GracePageTransformer.setPageCulled(getChildAt(i), false);
+            }
+        }
+        mGracePageTransformer = transformer;
+        if (transformer != null) {
+            transformer.setMetrics(mMetrics);
+            transformer.setBatchViewPager(this);
+        }
+        if (mPageLayerManager != null) {
+            mPageLayerManager.setPageTransformer(transformer);
+        }
+        if (detached && mPageCullingEnabled) {
+            transformAndCullPages();
+            invalidate();
+        }
     }
 
     /**
@@ -171,7 +559,32 @@ public class GraceViewPager extends ViewPager {
      */
     @Override
     public void setAdapter(@Nullable PagerAdapter adapter) {
+        PagerAdapter oldAdapter = getAdapter();
+        if (oldAdapter instanceof GracePagerAdapter && oldAdapter != adapter) {
+            ((GracePagerAdapter) oldAdapter).setMetrics(null);
+        }
+        if (adapter instanceof GracePagerAdapter) {
+            ((GracePagerAdapter) adapter).setMetrics(mMetrics);
+        }
         super.setAdapter(adapter);
+        if (mMemoryTrimmer != null) {
+            mMemoryTrimmer.onAdapterChanged(oldAdapter, adapter);
+        }
+        if (adapter instanceof GracePagerAdapter) {
+            setInitialLoopItem((GracePagerAdapter) adapter);
+        }
+    }
+
+    /*
+     * 循环模式从中间区段开始（包括恢复的页面）。第一次布局前跳转只修改当前页面，不会创建页面；已经布局过时
+     * ViewPager设置adapter时已创建当前页面附近的页面，按回到中间的方式跳转，尽量直接复用这些页面
+     */
+    private void setInitialLoopItem(GracePagerAdapter adapter) {
+        int currentItem = getCurrentItem();
+        int centerItem = adapter.getLoopCenterPosition(currentItem);
+        if (centerItem != currentItem) {
+            jumpLoop(adapter, currentItem, centerItem, getOffscreenPageLimit());
+        }
     }
 
     /**
@@ -184,6 +597,39 @@ public class GraceViewPager extends ViewPager {
         setAdapter(adapter);
     }
 
+    /**
+     * 设置是否开启运行指标统计（默认关闭）。开启后记录页面创建、绑定、刷新位置计算、页面尺寸计算以及页面动画的耗时直方图，
+     * 和页面创建、销毁、重新绑定的次数；需要配合{@link GracePagerAdapter}、{@link GracePageTransformer}使用
+     *
+     * @param enabled 是否开启
+     * @see #getMetrics()
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled == (mMetrics != null)) {
+            return;
+        }
+        mMetrics = enabled ? new GracePagerMetrics() : null;
+        mMultiPagePlugin.setMetrics(mMetrics);
+        if (mGracePageTransformer != null) {
+            mGracePageTransformer.setMetrics(mMetrics);
+        }
+        PagerAdapter adapter = getAdapter();
+        if (adapter instanceof GracePagerAdapter) {
+            ((GracePagerAdapter) adapter).setMetrics(mMetrics);
+        }
+    }
+
+    /**
+     * 获取运行指标
+     *
+     * @return 未开启返回null
+     * @see #setMetricsEnabled(boolean)
+     */
+    @Nullable
+    public GracePagerMetrics getMetrics() {
+        return mMetrics;
+    }
+
     /**
      * 获取当前page比例
      *
@@ -238,6 +684,46 @@ public class GraceViewPager extends ViewPager {
         mMultiPagePlugin.setPageVerticalMinMargin(pageVerticalMinMargin);
     }
 
+    /**
+     * 获取页面尺寸策略
+     *
+     * @return 页面尺寸策略
+     */
+    @NonNull
+    public GracePageSizePolicy getPageSizePolicy() {
+        return mMultiPagePlugin.getPageSizePolicy();
+    }
+
+    /**
+     * 设置页面尺寸策略，默认为{@link GracePageSizePolicy.Ratio}，即按page比例以及最小间距确定页面尺寸
+     *
+     * @param pageSizePolicy 页面尺寸策略
+     */
+    public void setPageSizePolicy(@NonNull GracePageSizePolicy pageSizePolicy) {
+        mMultiPagePlugin.setPageSizePolicy(pageSizePolicy);
+    }
+
+    /**
+     * 使缓存的页面尺寸失效，下次测量时重新计算
+     *
+     * @see GraceMultiPagePlugin#invalidatePageSize()
+     */
+    public void invalidatePageSize() {
+        mMultiPagePlugin.invalidatePageSize();
+    }
+
+    /**
+     * 开始一次配置修改，通过返回的{@link ConfigTransaction}修改page比例、最小间距、页面尺寸策略以及pageMargin，
+     * 调用{@link ConfigTransaction#commit()}后一次性生效：只修正一次滚动位置，只触发一次测量布局。<br>
+     * 例如屏幕旋转、切换主题时同时修改多个配置，避免多次布局以及中间状态的滚动位置修正
+     *
+     * @return 配置修改事务
+     */
+    @NonNull
+    public ConfigTransaction beginConfigUpdate() {
+        return new ConfigTransaction(this);
+    }
+
     @Override
     public Parcelable onSaveInstanceState() {
         Parcelable superState = super.onSaveInstanceState();
@@ -258,9 +744,134 @@ public class GraceViewPager extends ViewPager {
         SavedState ss = (SavedState) state;
         super.onRestoreInstanceState(ss.getSuperState());
 
-        mMultiPagePlugin.setPageHeightWidthRatio(ss.mPageHeightWidthRatio);
-        mMultiPagePlugin.setPageHorizontalMinMargin(ss.mPageHorizontalMinMargin);
-        mMultiPagePlugin.setPageVerticalMinMargin(ss.mPageVerticalMinMargin);
+        beginConfigUpdate()
+                .pageHeightWidthRatio(ss.mPageHeightWidthRatio)
+                .pageHorizontalMinMargin(ss.mPageHorizontalMinMargin)
+                .pageVerticalMinMargin(ss.mPageVerticalMinMargin)
+                .commit();
+    }
+
+    /**
+     * 配置修改事务，由{@link #beginConfigUpdate()}创建，修改的配置在{@link #commit()}后一次性生效；
+     * 事务中没有修改的配置保持commit时的值
+     */
+    public static final class ConfigTransaction {
+
+        // 事务中修改过的配置
+        private static final int CHANGED_PAGE_HEIGHT_WIDTH_RATIO = 1;
+        private static final int CHANGED_PAGE_HORIZONTAL_MIN_MARGIN = 1 << 1;
+        private static final int CHANGED_PAGE_VERTICAL_MIN_MARGIN = 1 << 2;
+        private static final int CHANGED_PAGE_SIZE_POLICY = 1 << 3;
+        private static final int CHANGED_PAGE_MARGIN = 1 << 4;
+
+        private GraceViewPager mViewPager;
+        private float mPageHeightWidthRatio;
+        private int mPageHorizontalMinMargin;
+        private int mPageVerticalMinMargin;
+        private GracePageSizePolicy mPageSizePolicy;
+        private int mPageMargin;
+        // 修改过的配置，commit时只应用这些配置，其余配置使用当时的值，不覆盖事务期间通过其他方法做的修改
+        private int mChangedFlags;
+
+        ConfigTransaction(GraceViewPager viewPager) {
+            mViewPager = viewPager;
+        }
+
+        /**
+         * 设置page比例
+         *
+         * @param pageHeightWidthRatio page比例，如果小于0会被当做0处理
+         * @return ConfigTransaction
+         */
+        public ConfigTransaction pageHeightWidthRatio(float pageHeightWidthRatio) {
+            mPageHeightWidthRatio = pageHeightWidthRatio;
+            mChangedFlags |= CHANGED_PAGE_HEIGHT_WIDTH_RATIO;
+            return this;
+        }
+
+        /**
+         * 设置page水平最小间距
+         *
+         * @param pageHorizontalMinMargin 水平最小间距
+         * @return ConfigTransaction
+         */
+        public ConfigTransaction pageHorizontalMinMargin(int pageHorizontalMinMargin) {
+            mPageHorizontalMinMargin = pageHorizontalMinMargin;
+            mChangedFlags |= CHANGED_PAGE_HORIZONTAL_MIN_MARGIN;
+            return this;
+        }
+
+        /**
+         * 设置page垂直最小间距
+         *
+         * @param pageVerticalMinMargin 垂直最小间距
+         * @return ConfigTransaction
+         */
+        public ConfigTransaction pageVerticalMinMargin(int pageVerticalMinMargin) {
+            mPageVerticalMinMargin = pageVerticalMinMargin;
+            mChangedFlags |= CHANGED_PAGE_VERTICAL_MIN_MARGIN;
+            return this;
+        }
+
+        /**
+         * 设置页面尺寸策略
+         *
+         * @param pageSizePolicy 页面尺寸策略
+         * @return ConfigTransaction
+         */
+        public ConfigTransaction pageSizePolicy(@NonNull GracePageSizePolicy pageSizePolicy) {
+            mPageSizePolicy = pageSizePolicy;
+            mChangedFlags |= CHANGED_PAGE_SIZE_POLICY;
+            return this;
+        }
+
+        /**
+         * 设置页面间距
+         *
+         * @param pageMargin 页面间距
+         * @return ConfigTransaction
+         */
+        public ConfigTransaction pageMargin(int pageMargin) {
+            mPageMargin = pageMargin;
+            mChangedFlags |= CHANGED_PAGE_MARGIN;
+            return this;
+        }
+
+        /**
+         * 使修改生效，只能调用一次
+         */
+        public void commit() {
+            GraceViewPager viewPager = mViewPager;
+            if (viewPager == null) {
+                throw new IllegalStateException("ConfigTransaction has already been committed");
+            }
+            mViewPager = null;
+            GraceMultiPagePlugin plugin = viewPager.mMultiPagePlugin;
+            boolean pageSizeChanged = plugin.setPageConfig(
+                    isChanged(CHANGED_PAGE_HEIGHT_WIDTH_RATIO)
+                            ? mPageHeightWidthRatio : plugin.getPageHeightWidthRatio(),
+                    isChanged(CHANGED_PAGE_HORIZONTAL_MIN_MARGIN)
+                            ? mPageHorizontalMinMargin : plugin.getPageHorizontalMinMargin(),
+                    isChanged(CHANGED_PAGE_VERTICAL_MIN_MARGIN)
+                            ? mPageVerticalMinMargin : plugin.getPageVerticalMinMargin(),
+                    isChanged(CHANGED_PAGE_SIZE_POLICY) ? mPageSizePolicy : plugin.getPageSizePolicy());
+            if (!isChanged(CHANGED_PAGE_MARGIN) || mPageMargin == viewPager.getPageMargin()) {
+                return;
+            }
+            int childWidth = viewPager.getMeasuredWidth() - viewPager.getPaddingLeft() - viewPager.getPaddingRight();
+            if (!pageSizeChanged || childWidth == 0) {
+                GraceViewPagerSupport.setPageMargin(viewPager, mPageMargin);
+                return;
+            }
+            // padding也会变化，滚动位置在布局时由SizeChangeHandler基于修改前的位置一次修正，不在这里恢复
+            int scrollX = viewPager.getScrollX();
+            viewPager.setPageMargin(mPageMargin);
+            viewPager.mSizeChangeHandler.setPendingScrollX(scrollX);
+        }
+
+        private boolean isChanged(int flag) {
+            return (mChangedFlags & flag) != 0;
+        }
     }
 
     /**
@@ -3,6 +3,9 @@ package com.lancewu.graceviewpager;
 import android.support.annotation.NonNull;
 import android.support.v4.view.ViewPager;
 import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.lancewu.graceviewpager.util.GraceSystemTrace;
 
 /**
  * Created by wrs on 2018/8/8.<br>
@@ -37,24 +40,13 @@ public final class GraceViewPagerSupport {
      * @see GraceMultiPagePlugin
      */
     public static void supportMultiPage(@NonNull ViewPager viewPager, final GraceMultiPagePlugin multiPagePlugin) {
-        viewPager.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
-
-            private SizeChangeHandler mSizeChangeHandler = new SizeChangeHandler();
-
-            @Override
-            public void onLayoutChange(final View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
-                final int width = right - left;
-                final int height = bottom - top;
-                // 当前正在layout，需要下一帧重新测量布局生效
-                v.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        multiPagePlugin.determinePageSize(width, height);
-                        mSizeChangeHandler.onSizeChange((ViewPager) v, width);
-                    }
-                });
-            }
-        });
+        MultiPageLayoutHelper helper = new MultiPageLayoutHelper(viewPager, multiPagePlugin);
+        viewPager.addOnLayoutChangeListener(helper);
+        viewPager.addOnAttachStateChangeListener(helper);
+        if (viewPager.getWindowToken() != null) {
+            // 已经attach，直接注册
+            helper.onViewAttachedToWindow(viewPager);
+        }
     }
 
     /**
@@ -100,22 +92,127 @@ public final class GraceViewPagerSupport {
 
     }
 
+    /**
+     * 一屏多页布局处理。<br>
+     * 布局后记录尺寸，在同一次遍历的绘制前计算padding；padding变化时立即重新测量布局，然后修正滚动位置，
+     * 不需要等下一帧，也不会以错误的页面尺寸绘制一帧
+     */
+    private static final class MultiPageLayoutHelper implements View.OnLayoutChangeListener,
+            View.OnAttachStateChangeListener, ViewTreeObserver.OnPreDrawListener {
+
+        private ViewPager mViewPager;
+        private GraceMultiPagePlugin mMultiPagePlugin;
+        private SizeChangeHandler mSizeChangeHandler;
+        // 布局后是否还未处理
+        private boolean mLayoutPending;
+        // 注册OnPreDrawListener的ViewTreeObserver
+        private ViewTreeObserver mViewTreeObserver;
+
+        MultiPageLayoutHelper(ViewPager viewPager, GraceMultiPagePlugin multiPagePlugin) {
+            mViewPager = viewPager;
+            mMultiPagePlugin = multiPagePlugin;
+            mSizeChangeHandler = new SizeChangeHandler();
+        }
+
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft,
+                                   int oldTop, int oldRight, int oldBottom) {
+            mLayoutPending = true;
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            if (!mLayoutPending) {
+                return true;
+            }
+            mLayoutPending = false;
+            ViewPager viewPager = mViewPager;
+            int width = viewPager.getWidth();
+            int height = viewPager.getHeight();
+            int paddingLeft = viewPager.getPaddingLeft();
+            int paddingTop = viewPager.getPaddingTop();
+            int paddingRight = viewPager.getPaddingRight();
+            int paddingBottom = viewPager.getPaddingBottom();
+            mMultiPagePlugin.determinePageSize(width, height);
+            if (paddingLeft != viewPager.getPaddingLeft() || paddingTop != viewPager.getPaddingTop()
+                    || paddingRight != viewPager.getPaddingRight() || paddingBottom != viewPager.getPaddingBottom()) {
+                // padding变化，在本次绘制前按原尺寸重新测量布局（ViewPager总是占满测量尺寸）
+                viewPager.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+                viewPager.layout(viewPager.getLeft(), viewPager.getTop(), viewPager.getRight(), viewPager.getBottom());
+                // 重新布局也会回调onLayoutChange，已经处理过
+                mLayoutPending = false;
+            }
+            mSizeChangeHandler.onSizeChange(viewPager, width);
+            return true;
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            if (mViewTreeObserver != null) {
+                return;
+            }
+            mViewTreeObserver = v.getViewTreeObserver();
+            mViewTreeObserver.addOnPreDrawListener(this);
+            // attach后会重新布局
+            mLayoutPending = true;
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            if (mViewTreeObserver == null) {
+                return;
+            }
+            if (mViewTreeObserver.isAlive()) {
+                mViewTreeObserver.removeOnPreDrawListener(this);
+            } else {
+                v.getViewTreeObserver().removeOnPreDrawListener(this);
+            }
+            mViewTreeObserver = null;
+        }
+    }
+
     /**
      * 尺寸变化处理
      */
     public static class SizeChangeHandler {
         private int mLastChildWidth;
+        // 下次处理时使用的滚动位置，代替当前的scrollX
+        private int mPendingScrollX;
+        private boolean mScrollXPending;
 
         public void onSizeChange(ViewPager viewPager, int width) {
-            int childWidth = width - viewPager.getPaddingLeft() - viewPager.getPaddingRight();
-            if (childWidth == 0) {
-                return;
+            GraceSystemTrace.beginSection(GraceSystemTrace.SECTION_ON_SIZE_CHANGE);
+            onSizeChangeInternal(viewPager, width);
+            GraceSystemTrace.endSection();
+        }
+
+        /**
+         * 设置下次处理时使用的滚动位置：修改pageMargin后不立即修正滚动位置，与之后padding变化的修正合并为一次
+         *
+         * @param scrollX 修改pageMargin前的滚动位置
+         */
+        void setPendingScrollX(int scrollX) {
+            mPendingScrollX = scrollX;
+            mScrollXPending = true;
+        }
+
+        private void onSizeChangeInternal(ViewPager viewPager, int width) {
+            int scrollX = viewPager.getScrollX();
+            boolean scrollXPending = mScrollXPending;
+            if (scrollXPending) {
+                scrollX = mPendingScrollX;
+                mScrollXPending = false;
             }
-            if (mLastChildWidth == 0) {
+            int childWidth = width - viewPager.getPaddingLeft() - viewPager.getPaddingRight();
+            if (childWidth != 0 && mLastChildWidth == 0) {
                 mLastChildWidth = childWidth;
-                return;
             }
-            if (mLastChildWidth == childWidth) {
+            if (childWidth == 0 || mLastChildWidth == childWidth) {
+                if (scrollXPending) {
+                    // page宽度没有变化，恢复修改pageMargin前的位置即可
+                    viewPager.scrollTo(scrollX, viewPager.getScrollY());
+                }
                 return;
             }
             /*
@@ -123,7 +220,7 @@ public final class GraceViewPagerSupport {
              * 同时，经过数据刷新后scrollX=0不代表定位到第一个页面，取决于最左边child的位置，所以该值有可能是负值；
              * 解决方案：根据旧值获取页面偏移，根据页面偏移计算新的scrollX位置
              */
-            recomputeScrollPosition(viewPager, viewPager.getScrollX(), childWidth, mLastChildWidth);
+            recomputeScrollPosition(viewPager, scrollX, childWidth, mLastChildWidth);
             mLastChildWidth = childWidth;
         }
 
@@ -0,0 +1,219 @@
+package com.lancewu.graceviewpager;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.lancewu.graceviewpager.util.GraceTrace;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * 页面视图预创建器。<br>
+ * 在子线程中按视图类型预先创建一定数量的页面视图，主线程创建页面时直接取用，避免在滑动过程中inflate布局；
+ * 预创建的视图被取用后，在主线程空闲时补充。<br>
+ * 除{@link Factory#onPreInflate(ViewGroup, int)}外，所有方法只允许在主线程调用。
+ */
+final class GraceViewPreInflater {
+
+    /**
+     * 预创建视图工厂
+     */
+    interface Factory {
+        /**
+         * 创建视图，在子线程中调用
+         *
+         * @param container 容器
+         * @param viewType  视图类型
+         * @return 不支持预创建返回null
+         */
+        View onPreInflate(ViewGroup container, int viewType);
+    }
+
+    private final Factory mFactory;
+    private final Executor mExecutor;
+    private final Handler mMainThreadHandler = new Handler(Looper.getMainLooper());
+    // 视图类型-预创建数量
+    private final SparseIntArray mTargetCounts = new SparseIntArray();
+    // 视图类型-正在创建中的数量
+    private final SparseIntArray mPendingCounts = new SparseIntArray();
+    // 视图类型-已创建好的视图
+    private final SparseArray<ArrayList<View>> mPreInflatedViews = new SparseArray<>();
+    // 容器，即ViewPager，创建视图时用于生成LayoutParams
+    private WeakReference<ViewGroup> mContainerRef;
+    // 是否已添加空闲时补充任务
+    private boolean mIdleFillScheduled;
+    // 是否暂停预创建（内存紧张时）
+    private boolean mSuspended;
+
+    // 主线程空闲时补充
+    private final MessageQueue.IdleHandler mIdleFillHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            mIdleFillScheduled = false;
+            fill();
+            return false;
+        }
+    };
+
+    GraceViewPreInflater(Factory factory, Executor executor) {
+        mFactory = factory;
+        mExecutor = executor;
+    }
+
+    /**
+     * 设置某种视图类型的预创建数量
+     *
+     * @param viewType 视图类型
+     * @param count    数量，小于等于0表示不预创建
+     */
+    void setTargetCount(int viewType, int count) {
+        if (count <= 0) {
+            mTargetCounts.delete(viewType);
+            mPreInflatedViews.remove(viewType);
+            return;
+        }
+        mTargetCounts.put(viewType, count);
+        ArrayList<View> views = mPreInflatedViews.get(viewType);
+        while (views != null && views.size() > count) {
+            views.remove(views.size() - 1);
+        }
+        fill();
+    }
+
+    /**
+     * 绑定容器，绑定后开始预创建
+     *
+     * @param container 容器
+     */
+    void attach(ViewGroup container) {
+        if (mContainerRef != null && mContainerRef.get() == container) {
+            return;
+        }
+        mContainerRef = new WeakReference<>(container);
+        fill();
+    }
+
+    /**
+     * 取出一个预创建的视图，取出后会在主线程空闲时补充
+     *
+     * @param viewType 视图类型
+     * @return 没有返回null
+     */
+    View acquire(int viewType) {
+        ArrayList<View> views = mPreInflatedViews.get(viewType);
+        if (views == null || views.isEmpty()) {
+            return null;
+        }
+        View view = views.remove(views.size() - 1);
+        scheduleIdleFill();
+        return view;
+    }
+
+    /**
+     * 是否有预创建好的视图
+     *
+     * @param viewType 视图类型
+     * @return 有返回true
+     */
+    boolean hasPreInflated(int viewType) {
+        ArrayList<View> views = mPreInflatedViews.get(viewType);
+        return views != null && !views.isEmpty();
+    }
+
+    /**
+     * 清空预创建好的视图（预创建数量设置保留，空闲时会重新补充）
+     */
+    void clear() {
+        mPreInflatedViews.clear();
+    }
+
+    /**
+     * 暂停/恢复预创建，暂停时清空预创建好的视图，正在创建中的视图完成后直接丢弃；恢复后重新补充
+     *
+     * @param suspended 是否暂停
+     */
+    void setSuspended(boolean suspended) {
+        if (mSuspended == suspended) {
+            return;
+        }
+        mSuspended = suspended;
+        if (suspended) {
+            clear();
+        } else {
+            fill();
+        }
+    }
+
+    private void scheduleIdleFill() {
+        if (mIdleFillScheduled) {
+            return;
+        }
+        mIdleFillScheduled = true;
+        Looper.myQueue().addIdleHandler(mIdleFillHandler);
+    }
+
+    // 补充不足的视图
+    private void fill() {
+        if (mSuspended) {
+            return;
+        }
+        final ViewGroup container = mContainerRef == null ? null : mContainerRef.get();
+        if (container == null) {
+            return;
+        }
+        for (int i = 0; i < mTargetCounts.size(); i++) {
+            final int viewType = mTargetCounts.keyAt(i);
+            ArrayList<View> views = mPreInflatedViews.get(viewType);
+            int available = views == null ? 0 : views.size();
+            int pending = mPendingCounts.get(viewType);
+            int lack = mTargetCounts.valueAt(i) - available - pending;
+            if (lack <= 0) {
+                continue;
+            }
+            mPendingCounts.put(viewType, pending + lack);
+            for (int j = 0; j < lack; j++) {
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        final View view = mFactory.onPreInflate(container, viewType);
+                        mMainThreadHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                onPreInflated(viewType, view);
+                            }
+                        });
+                    }
+                });
+            }
+        }
+    }
+
+    private void onPreInflated(int viewType, View view) {
+        mPendingCounts.put(viewType, Math.max(0, mPendingCounts.get(viewType) - 1));
+        if (mSuspended) {
+            return;
+        }
+        int targetCount = mTargetCounts.get(viewType);
+        if (view == null) {
+            // 不支持预创建，不再尝试
+            GraceTrace.record(GraceTrace.EVENT_PRE_INFLATE_UNSUPPORTED, viewType, 0);
+            mTargetCounts.delete(viewType);
+            return;
+        }
+        ArrayList<View> views = mPreInflatedViews.get(viewType);
+        if (views == null) {
+            views = new ArrayList<>(targetCount);
+            mPreInflatedViews.put(viewType, views);
+        }
+        if (views.size() < targetCount) {
+            views.add(view);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.lancewu.graceviewpager.transformer;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import com.lancewu.graceviewpager.GraceDirtyCheckedPageTransformer;
+import com.lancewu.graceviewpager.GracePagePositionProvider;
+import com.lancewu.graceviewpager.util.GraceEasingTable;
+
+/**
+ * 封面流动画：两侧页面绕Y轴旋转并缩小，离中间越远层级越低（API 21及以上通过translationZ实现，以下按绘制顺序）。<br>
+ * 一般配合一屏多页使用；旋转角度较大时可调用页面的setCameraDistance避免透视变形过大。
+ */
+public class GraceCoverFlowPageTransformer extends GraceDirtyCheckedPageTransformer {
+
+    // 默认最大旋转角度
+    private static final float DEFAULT_MAX_ROTATION = 45;
+    // 默认最小缩放
+    private static final float DEFAULT_MIN_SCALE = 0.8f;
+
+    // 最大旋转角度，position为±1时的角度
+    private float mMaxRotation;
+    // 最小缩放
+    private float mMinScale;
+    // 插值查找表，为null时线性变化
+    private GraceEasingTable mEasingTable;
+
+    public GraceCoverFlowPageTransformer(@NonNull GracePagePositionProvider pagerAdapter) {
+        this(pagerAdapter, DEFAULT_MAX_ROTATION, DEFAULT_MIN_SCALE);
+    }
+
+    public GraceCoverFlowPageTransformer(@NonNull GracePagePositionProvider pagerAdapter, float maxRotation,
+                                         float minScale) {
+        super(pagerAdapter);
+        mMaxRotation = maxRotation;
+        mMinScale = minScale;
+    }
+
+    /**
+     * 设置插值查找表
+     *
+     * @param easingTable 为null时线性变化
+     */
+    public void setEasingTable(@Nullable GraceEasingTable easingTable) {
+        mEasingTable = easingTable;
+    }
+
+    @Override
+    protected void onTransformPage(@NonNull View page, float position, @NonNull Transform transform) {
+        float clampedPosition = Math.max(-1, Math.min(1, position));
+        float fraction = Math.abs(clampedPosition);
+        if (mEasingTable != null) {
+            fraction = mEasingTable.getInterpolation(fraction);
+        }
+        float direction = clampedPosition < 0 ? -1 : 1;
+        transform.setRotationY(-direction * fraction * mMaxRotation)
+                .setScale(1 - (1 - mMinScale) * fraction)
+                // 中间页面层级最高，只使用非正值，不产生阴影
+                .setTranslationZ(-Math.abs(position));
+    }
+
+    @Override
+    protected boolean isHardwareLayerRequired(@NonNull View page) {
+        // 不修改透明度，不需要硬件层
+        return false;
+    }
+}
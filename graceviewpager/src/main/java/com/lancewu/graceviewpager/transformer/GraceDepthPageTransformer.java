@@ -0,0 +1,47 @@
+package com.lancewu.graceviewpager.transformer;
+
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import com.lancewu.graceviewpager.GraceDirtyCheckedPageTransformer;
+import com.lancewu.graceviewpager.GracePagePositionProvider;
+
+/**
+ * 景深动画：左侧页面正常滑出，右侧页面在原地缩小、淡出，好像在左侧页面下方。<br>
+ * 设置时reverseDrawingOrder需传入true，使左侧页面绘制在上方。
+ */
+public class GraceDepthPageTransformer extends GraceDirtyCheckedPageTransformer {
+
+    // 默认最小缩放
+    private static final float DEFAULT_MIN_SCALE = 0.75f;
+
+    // 最小缩放
+    private float mMinScale;
+
+    public GraceDepthPageTransformer(@NonNull GracePagePositionProvider pagerAdapter) {
+        this(pagerAdapter, DEFAULT_MIN_SCALE);
+    }
+
+    public GraceDepthPageTransformer(@NonNull GracePagePositionProvider pagerAdapter, float minScale) {
+        super(pagerAdapter);
+        mMinScale = minScale;
+    }
+
+    @Override
+    protected void onTransformPage(@NonNull View page, float position, @NonNull Transform transform) {
+        if (position < -1 || position > 1) {
+            // 超出相邻的范围，不可见
+            transform.setAlpha(0);
+        } else if (position <= 0) {
+            // 左侧页面，正常滑动
+            transform.setAlpha(1)
+                    .setTranslationX(0)
+                    .setScale(1);
+        } else {
+            // 右侧页面，抵消滑动并缩小、淡出
+            transform.setAlpha(1 - position)
+                    .setTranslationX(page.getWidth() * -position)
+                    .setScale(mMinScale + (1 - mMinScale) * (1 - position));
+        }
+    }
+}
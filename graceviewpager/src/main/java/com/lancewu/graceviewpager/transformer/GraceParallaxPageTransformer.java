@@ -0,0 +1,77 @@
+package com.lancewu.graceviewpager.transformer;
+
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import com.lancewu.graceviewpager.GracePageTransformer;
+import com.lancewu.graceviewpager.GracePagePositionProvider;
+import com.lancewu.graceviewpager.R;
+
+/**
+ * 视差动画：页面中指定的子视图按各自的系数相对页面平移，产生层次感。<br>
+ * 子视图只在页面第一次做动画时查找一次并缓存在页面上；如果绑定数据时替换了这些子视图，需调用
+ * {@link #invalidateChildren(View)}。
+ */
+public class GraceParallaxPageTransformer extends GracePageTransformer {
+
+    // 子视图id
+    private final int[] mChildIds;
+    // 子视图的视差系数，为1时子视图的平移距离等于页面宽度
+    private final float[] mFactors;
+
+    /**
+     * @param pagerAdapter adapter
+     * @param childIds     子视图id
+     * @param factors      视差系数，与childIds一一对应；正数与滑动方向相反，负数相同
+     */
+    public GraceParallaxPageTransformer(@NonNull GracePagePositionProvider pagerAdapter, @NonNull @IdRes int[] childIds,
+                                        @NonNull float[] factors) {
+        super(pagerAdapter);
+        if (childIds.length != factors.length) {
+            throw new IllegalArgumentException("childIds and factors must have the same length");
+        }
+        mChildIds = childIds.clone();
+        mFactors = factors.clone();
+    }
+
+    @Override
+    public void transformPageWithCorrectPosition(@NonNull View page, float position) {
+        View[] children = getChildren(page);
+        // 超出相邻范围的页面不可见，保持±1的值以免重复设置
+        float offset = -Math.max(-1, Math.min(1, position)) * page.getWidth();
+        for (int i = 0; i < children.length; i++) {
+            View child = children[i];
+            if (child != null) {
+                child.setTranslationX(offset * mFactors[i]);
+            }
+        }
+    }
+
+    @Override
+    protected boolean isHardwareLayerRequired(@NonNull View page) {
+        // 子视图每帧都在移动，硬件层每帧都要重绘，反而增加开销
+        return false;
+    }
+
+    /**
+     * 清除页面上缓存的子视图，下次动画时重新查找
+     *
+     * @param page 页面
+     */
+    public static void invalidateChildren(@NonNull View page) {
+        page.setTag(R.id.gvp_parallax_children, null);
+    }
+
+    private View[] getChildren(View page) {
+        View[] children = (View[]) page.getTag(R.id.gvp_parallax_children);
+        if (children == null || children.length != mChildIds.length) {
+            children = new View[mChildIds.length];
+            for (int i = 0; i < mChildIds.length; i++) {
+                children[i] = page.findViewById(mChildIds[i]);
+            }
+            page.setTag(R.id.gvp_parallax_children, children);
+        }
+        return children;
+    }
+}
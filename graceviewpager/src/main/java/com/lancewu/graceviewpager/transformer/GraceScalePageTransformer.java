@@ -0,0 +1,71 @@
+package com.lancewu.graceviewpager.transformer;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import com.lancewu.graceviewpager.GraceDirtyCheckedPageTransformer;
+import com.lancewu.graceviewpager.GracePagePositionProvider;
+import com.lancewu.graceviewpager.util.GraceEasingTable;
+
+/**
+ * 缩放（卡片轮播）动画：中间页面原始大小，两侧页面随距离缩小，可选同时降低透明度。<br>
+ * 一般配合一屏多页使用。
+ */
+public class GraceScalePageTransformer extends GraceDirtyCheckedPageTransformer {
+
+    // 默认最小缩放
+    private static final float DEFAULT_MIN_SCALE = 0.85f;
+
+    // 最小缩放，position为±1时的缩放
+    private float mMinScale;
+    // 最小透明度，为1时不修改透明度
+    private float mMinAlpha = 1;
+    // 插值查找表，为null时线性变化
+    private GraceEasingTable mEasingTable;
+
+    public GraceScalePageTransformer(@NonNull GracePagePositionProvider pagerAdapter) {
+        this(pagerAdapter, DEFAULT_MIN_SCALE);
+    }
+
+    public GraceScalePageTransformer(@NonNull GracePagePositionProvider pagerAdapter, float minScale) {
+        super(pagerAdapter);
+        mMinScale = minScale;
+    }
+
+    /**
+     * 设置最小透明度，默认为1，即不修改透明度
+     *
+     * @param minAlpha 最小透明度，[0,1]
+     */
+    public void setMinAlpha(float minAlpha) {
+        mMinAlpha = minAlpha;
+    }
+
+    /**
+     * 设置插值查找表
+     *
+     * @param easingTable 为null时线性变化
+     */
+    public void setEasingTable(@Nullable GraceEasingTable easingTable) {
+        mEasingTable = easingTable;
+    }
+
+    @Override
+    protected void onTransformPage(@NonNull View page, float position, @NonNull Transform transform) {
+        float fraction = Math.min(1, Math.abs(position));
+        if (mEasingTable != null) {
+            fraction = mEasingTable.getInterpolation(fraction);
+        }
+        transform.setScale(1 - (1 - mMinScale) * fraction);
+        if (mMinAlpha < 1) {
+            transform.setAlpha(1 - (1 - mMinAlpha) * fraction);
+        }
+    }
+
+    @Override
+    protected boolean isHardwareLayerRequired(@NonNull View page) {
+        // 只缩放时不需要硬件层
+        return mMinAlpha < 1;
+    }
+}
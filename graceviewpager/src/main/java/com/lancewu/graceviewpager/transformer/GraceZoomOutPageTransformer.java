@@ -0,0 +1,53 @@
+package com.lancewu.graceviewpager.transformer;
+
+import android.support.annotation.NonNull;
+import android.view.View;
+
+import com.lancewu.graceviewpager.GraceDirtyCheckedPageTransformer;
+import com.lancewu.graceviewpager.GracePagePositionProvider;
+
+/**
+ * 缩小动画：滑动时页面缩小并淡出，相邻页面向中间靠拢。
+ */
+public class GraceZoomOutPageTransformer extends GraceDirtyCheckedPageTransformer {
+
+    // 默认最小缩放
+    private static final float DEFAULT_MIN_SCALE = 0.85f;
+    // 默认最小透明度
+    private static final float DEFAULT_MIN_ALPHA = 0.5f;
+
+    // 最小缩放
+    private float mMinScale;
+    // 最小透明度
+    private float mMinAlpha;
+
+    public GraceZoomOutPageTransformer(@NonNull GracePagePositionProvider pagerAdapter) {
+        this(pagerAdapter, DEFAULT_MIN_SCALE, DEFAULT_MIN_ALPHA);
+    }
+
+    public GraceZoomOutPageTransformer(@NonNull GracePagePositionProvider pagerAdapter, float minScale,
+                                       float minAlpha) {
+        super(pagerAdapter);
+        mMinScale = minScale;
+        mMinAlpha = minAlpha;
+    }
+
+    @Override
+    protected void onTransformPage(@NonNull View page, float position, @NonNull Transform transform) {
+        if (position < -1 || position > 1) {
+            // 超出相邻的范围，不可见
+            transform.setAlpha(0);
+            return;
+        }
+        float scale = Math.max(mMinScale, 1 - Math.abs(position));
+        float verticalMargin = page.getHeight() * (1 - scale) / 2;
+        float horizontalMargin = page.getWidth() * (1 - scale) / 2;
+        if (position < 0) {
+            transform.setTranslationX(horizontalMargin - verticalMargin / 2);
+        } else {
+            transform.setTranslationX(-horizontalMargin + verticalMargin / 2);
+        }
+        transform.setScale(scale)
+                .setAlpha(mMinAlpha + (scale - mMinScale) / (1 - mMinScale) * (1 - mMinAlpha));
+    }
+}
@@ -0,0 +1,54 @@
+package com.lancewu.graceviewpager.util;
+
+import android.animation.TimeInterpolator;
+import android.support.annotation.NonNull;
+
+/**
+ * 插值查找表。<br>
+ * 创建时对插值器在[0,1]上均匀采样，之后查询只做一次线性插值，适合在每帧的页面动画中代替插值器计算。
+ */
+public final class GraceEasingTable {
+
+    // 默认采样数量
+    private static final int DEFAULT_SAMPLE_COUNT = 128;
+
+    // 采样值，长度为采样数量+1
+    private final float[] mValues;
+    // 采样间隔数量
+    private final int mSteps;
+
+    public GraceEasingTable(@NonNull TimeInterpolator interpolator) {
+        this(interpolator, DEFAULT_SAMPLE_COUNT);
+    }
+
+    /**
+     * @param interpolator 插值器
+     * @param sampleCount  采样数量，最小为1
+     */
+    public GraceEasingTable(@NonNull TimeInterpolator interpolator, int sampleCount) {
+        mSteps = Math.max(1, sampleCount);
+        mValues = new float[mSteps + 1];
+        for (int i = 0; i <= mSteps; i++) {
+            mValues[i] = interpolator.getInterpolation((float) i / mSteps);
+        }
+    }
+
+    /**
+     * 查询插值
+     *
+     * @param input [0,1]，超出范围会被限制在范围内
+     * @return 插值结果
+     */
+    public float getInterpolation(float input) {
+        if (input <= 0) {
+            return mValues[0];
+        }
+        if (input >= 1) {
+            return mValues[mSteps];
+        }
+        float index = input * mSteps;
+        int lower = (int) index;
+        float fraction = index - lower;
+        return mValues[lower] + (mValues[lower + 1] - mValues[lower]) * fraction;
+    }
+}
@@ -4,19 +4,21 @@ import android.util.Log;
 
 /**
  * Created by wrs on 2018/8/7.<br>
- * 日志输出工具
+ * 日志输出工具。<br>
+ * 库内部已改为使用{@link GraceTrace}记录事件，避免在滑动过程中拼接字符串
  */
 public class GraceLog {
     private static final String TAG = "GraceViewPager";
     private static boolean mEnable = false;
 
     /**
-     * 是否开启调试日志，默认关闭
+     * 是否开启调试日志，默认关闭；同时控制{@link GraceTrace}是否记录事件
      *
      * @param enable 是否开启
      */
     public static void setEnable(boolean enable) {
         mEnable = enable;
+        GraceTrace.setEnable(enable);
     }
 
     public static void d(String msg) {
@@ -0,0 +1,77 @@
+package com.lancewu.graceviewpager.util;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * 系统trace工具。<br>
+ * 开启后在库内部主要环节添加{@link Trace}区段，使用systrace/Perfetto抓取时可以看到每个环节的耗时；
+ * 关闭时只有一次判断。区段名称固定，需要定位具体页面时可配合{@link GraceTrace}使用。<br>
+ * 需要API 18及以上，只允许在主线程调用。
+ */
+public final class GraceSystemTrace {
+
+    public static final String SECTION_INSTANTIATE_ITEM = "GVP:instantiateItem";
+    public static final String SECTION_DESTROY_ITEM = "GVP:destroyItem";
+    public static final String SECTION_GET_ITEM_POSITION = "GVP:getItemPosition";
+    public static final String SECTION_BIND_ITEM_VIEW = "GVP:bindItemView";
+    public static final String SECTION_ON_MEASURE = "GVP:onMeasure";
+    public static final String SECTION_ON_LAYOUT = "GVP:onLayout";
+    public static final String SECTION_ON_SIZE_CHANGE = "GVP:onSizeChange";
+    public static final String SECTION_TRANSFORM_PAGE = "GVP:transformPage";
+
+    private static boolean sEnable = false;
+    // 已开始未结束的区段数量，保证开关切换时begin、end成对
+    private static int sDepth;
+
+    private GraceSystemTrace() {
+    }
+
+    /**
+     * 是否开启系统trace区段，默认关闭
+     *
+     * @param enable 是否开启
+     */
+    public static void setEnable(boolean enable) {
+        sEnable = enable && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
+    public static boolean isEnable() {
+        return sEnable;
+    }
+
+    /**
+     * 开始区段
+     *
+     * @param sectionName 区段名称
+     */
+    public static void beginSection(String sectionName) {
+        if (!sEnable) {
+            return;
+        }
+        sDepth++;
+        beginSectionInternal(sectionName);
+    }
+
+    /**
+     * 结束最近开始的区段
+     */
+    public static void endSection() {
+        if (sDepth == 0) {
+            return;
+        }
+        sDepth--;
+        endSectionInternal();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void beginSectionInternal(String sectionName) {
+        Trace.beginSection(sectionName);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void endSectionInternal() {
+        Trace.endSection();
+    }
+}
@@ -0,0 +1,195 @@
+package com.lancewu.graceviewpager.util;
+
+import android.util.Log;
+
+/**
+ * 事件追踪工具。<br>
+ * 以“事件码+基本类型参数”的形式把事件记录到预先分配好的环形缓冲区中，记录过程不产生任何对象，关闭时只有一次判断；
+ * 需要时通过{@link #dump()}导出最近的事件用于问题分析。<br>
+ * 只允许在主线程记录。
+ */
+public final class GraceTrace {
+
+    /**
+     * 创建页面，参数：索引
+     */
+    public static final int EVENT_INSTANTIATE_ITEM = 1;
+    /**
+     * 销毁页面，参数：索引
+     */
+    public static final int EVENT_DESTROY_ITEM = 2;
+    /**
+     * 刷新时查找页面新位置，参数：旧索引、新索引
+     */
+    public static final int EVENT_ITEM_POSITION = 3;
+    /**
+     * 页面动画根据数据位置计算position，参数：当前项索引、页面数据索引
+     */
+    public static final int EVENT_TRANSFORM_REQUIRE_POSITION = 4;
+    /**
+     * 页面动画，参数：页面identityHashCode、修正后的position
+     */
+    public static final int EVENT_TRANSFORM_PAGE = 5;
+    /**
+     * 视图类型不支持预创建，参数：视图类型
+     */
+    public static final int EVENT_PRE_INFLATE_UNSUPPORTED = 6;
+
+    // 事件名称，下标为事件码
+    private static final String[] EVENT_NAMES = {
+            null,
+            "instantiateItem(position)",
+            "destroyItem(position)",
+            "getItemPosition(oldPos, newPos)",
+            "transformPage requirePagePosition(currentItem, pageViewIndex)",
+            "transformPage(page, position)",
+            "preInflate unsupported(viewType)",
+    };
+    // 第二个参数是否为float，下标为事件码
+    private static final boolean[] EVENT_FLOAT_ARG1 = {
+            false, false, false, false, false, true, false,
+    };
+
+    private static final String TAG = "GraceViewPager";
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static boolean sEnable = false;
+    private static long[] sTimes;
+    private static int[] sEvents;
+    private static long[] sArgs0;
+    private static long[] sArgs1;
+    // 容量-1，容量为2的幂
+    private static int sMask;
+    // 已记录的事件总数
+    private static long sCount;
+
+    static {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private GraceTrace() {
+    }
+
+    /**
+     * 是否开启事件记录，默认关闭
+     *
+     * @param enable 是否开启
+     */
+    public static void setEnable(boolean enable) {
+        sEnable = enable;
+    }
+
+    public static boolean isEnable() {
+        return sEnable;
+    }
+
+    /**
+     * 设置缓冲区容量，会清空已记录的事件
+     *
+     * @param capacity 容量，会向上取整为2的幂
+     */
+    public static void setCapacity(int capacity) {
+        int size = 1;
+        while (size < capacity && size > 0) {
+            size <<= 1;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("capacity too large: " + capacity);
+        }
+        allocate(size);
+    }
+
+    /**
+     * 记录事件
+     *
+     * @param event 事件码
+     * @param arg0  参数
+     * @param arg1  参数
+     */
+    public static void record(int event, long arg0, long arg1) {
+        if (!sEnable) {
+            return;
+        }
+        int index = (int) (sCount++ & sMask);
+        sTimes[index] = System.nanoTime();
+        sEvents[index] = event;
+        sArgs0[index] = arg0;
+        sArgs1[index] = arg1;
+    }
+
+    /**
+     * 记录事件，第二个参数为float
+     *
+     * @param event 事件码
+     * @param arg0  参数
+     * @param arg1  参数
+     */
+    public static void record(int event, long arg0, float arg1) {
+        if (!sEnable) {
+            return;
+        }
+        record(event, arg0, (long) Float.floatToRawIntBits(arg1));
+    }
+
+    /**
+     * 清空已记录的事件
+     */
+    public static void clear() {
+        sCount = 0;
+    }
+
+    /**
+     * 导出最近记录的事件（按时间顺序），可附加到问题报告中
+     *
+     * @return 事件文本
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        dump(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 导出最近记录的事件到StringBuilder
+     *
+     * @param sb StringBuilder
+     */
+    public static void dump(StringBuilder sb) {
+        int capacity = sMask + 1;
+        long start = Math.max(0, sCount - capacity);
+        sb.append("GraceTrace: ").append(sCount - start).append(" events (total ").append(sCount).append(")\n");
+        for (long i = start; i < sCount; i++) {
+            int index = (int) (i & sMask);
+            int event = sEvents[index];
+            sb.append(sTimes[index]).append("ns ");
+            if (event > 0 && event < EVENT_NAMES.length) {
+                sb.append(EVENT_NAMES[event]);
+            } else {
+                sb.append("event#").append(event);
+            }
+            sb.append(": ").append(sArgs0[index]).append(", ");
+            if (event > 0 && event < EVENT_FLOAT_ARG1.length && EVENT_FLOAT_ARG1[event]) {
+                sb.append(Float.intBitsToFloat((int) sArgs1[index]));
+            } else {
+                sb.append(sArgs1[index]);
+            }
+            sb.append('\n');
+        }
+    }
+
+    /**
+     * 把最近记录的事件输出到日志
+     */
+    public static void dumpToLog() {
+        Log.d(TAG, dump());
+    }
+
+    private static void allocate(int capacity) {
+        sTimes = new long[capacity];
+        sEvents = new int[capacity];
+        sArgs0 = new long[capacity];
+        sArgs1 = new long[capacity];
+        sMask = capacity - 1;
+        sCount = 0;
+    }
+}
@@ -0,0 +1,181 @@
+package com.lancewu.graceviewpager.util;
+
+import java.util.Arrays;
+
+/**
+ * long-int映射，开放寻址实现，存取不产生装箱对象。<br>
+ * 用于按数据id快速查找索引，非线程安全。
+ */
+public final class LongIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long[] mKeys;
+    private int[] mValues;
+    private boolean[] mUsed;
+    private int mSize;
+    // 容量-1，容量始终为2的幂
+    private int mMask;
+
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 预计存放的数量
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * 获取key对应的值
+     *
+     * @param key          key
+     * @param defaultValue 不存在时返回的值
+     * @return 值
+     */
+    public int get(long key, int defaultValue) {
+        int index = indexOf(key);
+        return mUsed[index] ? mValues[index] : defaultValue;
+    }
+
+    /**
+     * 存放键值对，key已存在时覆盖
+     *
+     * @param key   key
+     * @param value 值
+     */
+    public void put(long key, int value) {
+        int index = indexOf(key);
+        if (mUsed[index]) {
+            mValues[index] = value;
+            return;
+        }
+        mKeys[index] = key;
+        mValues[index] = value;
+        mUsed[index] = true;
+        mSize++;
+        if (mSize * 2 > mKeys.length) {
+            rehash(mKeys.length * 2);
+        }
+    }
+
+    /**
+     * 移除key
+     *
+     * @param key          key
+     * @param defaultValue 不存在时返回的值
+     * @return 移除的值
+     */
+    public int remove(long key, int defaultValue) {
+        int hole = indexOf(key);
+        if (!mUsed[hole]) {
+            return defaultValue;
+        }
+        int value = mValues[hole];
+        mUsed[hole] = false;
+        mSize--;
+        // 把探测链上后面的键值对移回空位，保证之后的查找不会在空位处中断
+        int index = (hole + 1) & mMask;
+        while (mUsed[index]) {
+            int ideal = hash(mKeys[index]) & mMask;
+            // 空位处于理想位置与当前位置之间时可以移动
+            if (((index - ideal) & mMask) >= ((index - hole) & mMask)) {
+                mKeys[hole] = mKeys[index];
+                mValues[hole] = mValues[index];
+                mUsed[hole] = true;
+                mUsed[index] = false;
+                hole = index;
+            }
+            index = (index + 1) & mMask;
+        }
+        return value;
+    }
+
+    /**
+     * 是否存在key
+     *
+     * @param key key
+     * @return 存在返回true
+     */
+    public boolean containsKey(long key) {
+        return mUsed[indexOf(key)];
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * 清空所有键值对，保留已分配的容量
+     */
+    public void clear() {
+        if (mSize == 0) {
+            return;
+        }
+        Arrays.fill(mUsed, false);
+        mSize = 0;
+    }
+
+    /**
+     * 确保可以再放入expectedSize个键值对而不需要扩容
+     *
+     * @param expectedSize 预计存放的数量
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > mKeys.length) {
+            rehash(capacity);
+        }
+    }
+
+    // 线性探测，返回key所在位置或者第一个空位置
+    private int indexOf(long key) {
+        int index = hash(key) & mMask;
+        while (mUsed[index] && mKeys[index] != key) {
+            index = (index + 1) & mMask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = mKeys;
+        int[] oldValues = mValues;
+        boolean[] oldUsed = mUsed;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(oldKeys[i]);
+                mKeys[index] = oldKeys[i];
+                mValues[index] = oldValues[i];
+                mUsed[index] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        mUsed = new boolean[capacity];
+        mMask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        // 负载因子0.5
+        while (capacity < expectedSize * 2 && capacity > 0) {
+            capacity <<= 1;
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        long h = key * HASH_MULTIPLIER;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,97 @@
+package com.lancewu.graceviewpager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GraceHistogramTest {
+
+    @Test
+    public void emptyHistogram() {
+        GraceHistogram histogram = new GraceHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getAverageNs());
+        assertEquals(0, histogram.getMaxNs());
+    }
+
+    @Test
+    public void bucketUpperBounds_doubleFrom16us() {
+        assertEquals(16000L, GraceHistogram.getBucketUpperBoundNs(0));
+        assertEquals(32000L, GraceHistogram.getBucketUpperBoundNs(1));
+        for (int i = 1; i < GraceHistogram.BUCKET_COUNT - 1; i++) {
+            assertEquals(GraceHistogram.getBucketUpperBoundNs(i - 1) * 2, GraceHistogram.getBucketUpperBoundNs(i));
+        }
+        assertEquals(Long.MAX_VALUE, GraceHistogram.getBucketUpperBoundNs(GraceHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void record_bucketBoundaries() {
+        GraceHistogram histogram = new GraceHistogram();
+        // 上限不包含在桶内
+        histogram.record(15999);
+        histogram.record(16000);
+        histogram.record(31999);
+        histogram.record(32000);
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(2, histogram.getBucketCount(1));
+        assertEquals(1, histogram.getBucketCount(2));
+    }
+
+    @Test
+    public void record_negativeCountedAsZero() {
+        GraceHistogram histogram = new GraceHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(0, histogram.getTotalNs());
+    }
+
+    @Test
+    public void record_hugeDurationGoesToLastBucket() {
+        GraceHistogram histogram = new GraceHistogram();
+        histogram.record(Long.MAX_VALUE / 2);
+        histogram.record(GraceHistogram.getBucketUpperBoundNs(GraceHistogram.BUCKET_COUNT - 2));
+        assertEquals(2, histogram.getBucketCount(GraceHistogram.BUCKET_COUNT - 1));
+        assertEquals(Long.MAX_VALUE / 2, histogram.getMaxNs());
+    }
+
+    @Test
+    public void record_totalsAndAverage() {
+        GraceHistogram histogram = new GraceHistogram();
+        histogram.record(1000);
+        histogram.record(2000);
+        histogram.record(6000);
+        assertEquals(3, histogram.getCount());
+        assertEquals(9000, histogram.getTotalNs());
+        assertEquals(3000, histogram.getAverageNs());
+        assertEquals(6000, histogram.getMaxNs());
+    }
+
+    @Test
+    public void copyTo_isIndependentSnapshot() {
+        GraceHistogram histogram = new GraceHistogram();
+        histogram.record(20000);
+        GraceHistogram snapshot = new GraceHistogram();
+        snapshot.record(1);
+        histogram.copyTo(snapshot);
+        histogram.record(20000);
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getBucketCount(0));
+        assertEquals(1, snapshot.getBucketCount(1));
+        assertEquals(20000, snapshot.getTotalNs());
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    public void reset_clearsEverything() {
+        GraceHistogram histogram = new GraceHistogram();
+        histogram.record(100);
+        histogram.record(1000000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotalNs());
+        assertEquals(0, histogram.getMaxNs());
+        for (int i = 0; i < GraceHistogram.BUCKET_COUNT; i++) {
+            assertEquals(0, histogram.getBucketCount(i));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.lancewu.graceviewpager;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class GraceItemPositionIndexTest {
+
+    private static final int BELOW_THRESHOLD = GraceItemPositionIndex.MIN_ALIVE_PAGES_FOR_INDEX - 1;
+    private static final int AT_THRESHOLD = GraceItemPositionIndex.MIN_ALIVE_PAGES_FOR_INDEX;
+
+    @Test
+    public void indexOfItem_duplicatesKeepSmallestIndex() {
+        List<String> items = createItems(50, 10);
+        for (int alivePageCount : new int[]{BELOW_THRESHOLD, AT_THRESHOLD}) {
+            GraceItemPositionIndex<String> index = new GraceItemPositionIndex<>();
+            for (int i = 0; i < 12; i++) {
+                String item = "item" + i;
+                assertEquals(item, items.indexOf(item), index.indexOfItem(items, item, alivePageCount));
+            }
+        }
+    }
+
+    @Test
+    public void indexOfItem_belowThreshold_searchesCurrentItems() {
+        List<String> items = createItems(20, 20);
+        GraceItemPositionIndex<String> index = new GraceItemPositionIndex<>();
+        assertEquals(5, index.indexOfItem(items, "item5", BELOW_THRESHOLD));
+        items.add(0, "new");
+        assertEquals(6, index.indexOfItem(items, "item5", BELOW_THRESHOLD));
+    }
+
+    @Test
+    public void indexOfItem_atThreshold_buildsIndexOnceUntilInvalidated() {
+        List<String> items = createItems(20, 20);
+        GraceItemPositionIndex<String> index = new GraceItemPositionIndex<>();
+        assertEquals(5, index.indexOfItem(items, "item5", AT_THRESHOLD));
+        // 同一次刷新中映射不会重新构建
+        items.add(0, "new");
+        assertEquals(5, index.indexOfItem(items, "item5", AT_THRESHOLD));
+        assertEquals(-1, index.indexOfItem(items, "new", AT_THRESHOLD));
+        index.invalidate();
+        assertEquals(6, index.indexOfItem(items, "item5", AT_THRESHOLD));
+        assertEquals(0, index.indexOfItem(items, "new", AT_THRESHOLD));
+    }
+
+    @Test
+    public void indexOfItemId_duplicatesKeepSmallestIndex() {
+        List<String> items = createItems(50, 10);
+        for (int alivePageCount : new int[]{BELOW_THRESHOLD, AT_THRESHOLD}) {
+            GraceItemPositionIndex<String> index = new GraceItemPositionIndex<>();
+            CountingIdProvider idProvider = new CountingIdProvider();
+            for (int i = 0; i < 12; i++) {
+                assertEquals(i < 10 ? i : -1, index.indexOfItemId(items, i, idProvider, alivePageCount));
+            }
+        }
+    }
+
+    @Test
+    public void indexOfItemId_atThreshold_readsIdsOnce() {
+        List<String> items = createItems(100, 100);
+        GraceItemPositionIndex<String> index = new GraceItemPositionIndex<>();
+        CountingIdProvider idProvider = new CountingIdProvider();
+        for (int i = 0; i < AT_THRESHOLD; i++) {
+            assertEquals(90 + i, index.indexOfItemId(items, 90 + i, idProvider, AT_THRESHOLD));
+        }
+        assertEquals(items.size(), idProvider.mCount);
+    }
+
+    @Test
+    public void indexOfItemId_belowThreshold_searchesLinearly() {
+        List<String> items = createItems(100, 100);
+        GraceItemPositionIndex<String> index = new GraceItemPositionIndex<>();
+        CountingIdProvider idProvider = new CountingIdProvider();
+        assertEquals(3, index.indexOfItemId(items, 3, idProvider, BELOW_THRESHOLD));
+        assertEquals(4, idProvider.mCount);
+    }
+
+    @Test
+    public void clear_rebuildsIndex() {
+        List<String> items = createItems(20, 20);
+        GraceItemPositionIndex<String> index = new GraceItemPositionIndex<>();
+        assertEquals(5, index.indexOfItem(items, "item5", AT_THRESHOLD));
+        index.clear();
+        items.remove(0);
+        assertEquals(4, index.indexOfItem(items, "item5", AT_THRESHOLD));
+    }
+
+    // size个数据，内容为"item" + (i % distinctCount)
+    private static List<String> createItems(int size, int distinctCount) {
+        List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add("item" + (i % distinctCount));
+        }
+        return items;
+    }
+
+    // id为"item"后面的数字，记录调用次数
+    private static class CountingIdProvider implements GraceListDiffer.ItemIdProvider<String> {
+
+        int mCount;
+
+        @Override
+        public long getItemId(String item) {
+            mCount++;
+            return Long.parseLong(item.substring("item".length()));
+        }
+    }
+}
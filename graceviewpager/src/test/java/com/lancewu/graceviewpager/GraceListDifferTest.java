@@ -0,0 +1,169 @@
+package com.lancewu.graceviewpager;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GraceListDifferTest {
+
+    private static final GraceItemCallback<Item> CALLBACK = new GraceItemCallback<Item>() {
+        @Override
+        public Object getItemKey(Item item) {
+            return item.mKey;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.mVersion == newItem.mVersion;
+        }
+    };
+
+    private static final GraceListDiffer.ItemIdProvider<Item> ID_PROVIDER = new GraceListDiffer.ItemIdProvider<Item>() {
+        @Override
+        public long getItemId(Item item) {
+            return item.mKey.hashCode();
+        }
+    };
+
+    @Test
+    public void sameItems_noChanges() {
+        GraceListDiffer.DiffResult result = diff(items("a", "b", "c"), items("a", "b", "c"));
+        assertFalse(result.hasStructuralChanges());
+        assertCounts(result, 0, 0, 0, 0);
+        assertNewPositions(result, 0, 1, 2);
+    }
+
+    @Test
+    public void insert() {
+        GraceListDiffer.DiffResult result = diff(items("a", "b", "c"), items("a", "x", "b", "c"));
+        assertTrue(result.hasStructuralChanges());
+        // b、c因插入而位移
+        assertCounts(result, 1, 0, 2, 0);
+        assertNewPositions(result, 0, 2, 3);
+    }
+
+    @Test
+    public void remove() {
+        GraceListDiffer.DiffResult result = diff(items("a", "b", "c"), items("a", "c"));
+        assertTrue(result.hasStructuralChanges());
+        assertCounts(result, 0, 1, 1, 0);
+        assertNewPositions(result, 0, -1, 1);
+    }
+
+    @Test
+    public void move() {
+        GraceListDiffer.DiffResult result = diff(items("a", "b", "c"), items("c", "a", "b"));
+        assertTrue(result.hasStructuralChanges());
+        assertCounts(result, 0, 0, 3, 0);
+        assertNewPositions(result, 1, 2, 0);
+    }
+
+    @Test
+    public void contentChange_isNotStructural() {
+        List<Item> newItems = items("a", "b", "c");
+        newItems.set(1, new Item("b", 1));
+        GraceListDiffer.DiffResult result = diff(items("a", "b", "c"), newItems);
+        assertFalse(result.hasStructuralChanges());
+        assertCounts(result, 0, 0, 0, 1);
+        assertFalse(result.isContentChanged(0));
+        assertTrue(result.isContentChanged(1));
+        assertFalse(result.isContentChanged(2));
+    }
+
+    @Test
+    public void sameInstance_skipsContentComparison() {
+        List<Item> oldItems = items("a", "b");
+        GraceListDiffer.DiffResult result = diff(oldItems, new ArrayList<>(oldItems));
+        assertCounts(result, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void duplicateKeys_matchedOnce() {
+        GraceListDiffer.DiffResult result = diff(items("a", "a", "b"), items("a", "b"));
+        assertTrue(result.hasStructuralChanges());
+        // 第二个a没有可匹配的新数据，当做移除
+        assertCounts(result, 0, 1, 1, 0);
+        assertNewPositions(result, 0, -1, 1);
+    }
+
+    @Test
+    public void duplicateKeys_inNewList_extraCountedAsInserted() {
+        GraceListDiffer.DiffResult result = diff(items("a", "b"), items("a", "a", "b"));
+        assertCounts(result, 1, 0, 1, 0);
+        assertNewPositions(result, 0, 2);
+    }
+
+    @Test
+    public void idProvider_usedInsteadOfKey() {
+        GraceListDiffer.DiffResult result = GraceListDiffer.calculateDiff(items("a", "b", "c"),
+                items("c", "b"), CALLBACK, ID_PROVIDER);
+        assertCounts(result, 0, 1, 1, 0);
+        assertNewPositions(result, -1, 1, 0);
+    }
+
+    @Test
+    public void emptyLists() {
+        GraceListDiffer.DiffResult result = diff(items(), items("a", "b"));
+        assertCounts(result, 2, 0, 0, 0);
+        assertTrue(result.hasStructuralChanges());
+        result = diff(items("a", "b"), items());
+        assertCounts(result, 0, 2, 0, 0);
+        assertNewPositions(result, -1, -1);
+    }
+
+    @Test
+    public void outOfRangeOldPosition() {
+        GraceListDiffer.DiffResult result = diff(items("a"), items("a"));
+        assertEquals(-1, result.getNewPosition(-1));
+        assertEquals(-1, result.getNewPosition(1));
+        assertFalse(result.isContentChanged(1));
+    }
+
+    private static GraceListDiffer.DiffResult diff(List<Item> oldItems, List<Item> newItems) {
+        return GraceListDiffer.calculateDiff(oldItems, newItems, CALLBACK, null);
+    }
+
+    private static void assertCounts(GraceListDiffer.DiffResult result, int inserted, int removed, int moved,
+                                     int changed) {
+        assertEquals("inserted", inserted, result.getInsertedCount());
+        assertEquals("removed", removed, result.getRemovedCount());
+        assertEquals("moved", moved, result.getMovedCount());
+        assertEquals("changed", changed, result.getChangedCount());
+    }
+
+    private static void assertNewPositions(GraceListDiffer.DiffResult result, int... newPositions) {
+        for (int i = 0; i < newPositions.length; i++) {
+            assertEquals("old position " + i, newPositions[i], result.getNewPosition(i));
+        }
+    }
+
+    private static List<Item> items(String... keys) {
+        List<Item> items = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            items.add(new Item(key, 0));
+        }
+        return items;
+    }
+
+    private static class Item {
+        private final String mKey;
+        private final int mVersion;
+
+        Item(String key, int version) {
+            mKey = key;
+            mVersion = version;
+        }
+
+        @Override
+        public String toString() {
+            return mKey + "@" + mVersion;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.lancewu.graceviewpager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GracePageSizePolicyTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int MARGIN_HORIZONTAL = 40;
+    private static final int MARGIN_VERTICAL = 60;
+
+    @Test
+    public void ratio_invalidRatio_usesMinMargins() {
+        assertPadding(new GracePageSizePolicy.Ratio(), 0, MARGIN_HORIZONTAL, MARGIN_VERTICAL);
+        assertPadding(new GracePageSizePolicy.Ratio(), -1, MARGIN_HORIZONTAL, MARGIN_VERTICAL);
+    }
+
+    @Test
+    public void ratio_widePage_addsVerticalPadding() {
+        // 可用空间1000x1800，页面1000x1500
+        assertPadding(new GracePageSizePolicy.Ratio(), 1.5f, 40, 210);
+    }
+
+    @Test
+    public void ratio_tallPage_addsHorizontalPadding() {
+        // 可用空间1000x1800，页面900x1800
+        assertPadding(new GracePageSizePolicy.Ratio(), 2f, 90, 60);
+    }
+
+    @Test
+    public void ratio_noAvailableSpace_usesMinMargins() {
+        int[] padding = new int[2];
+        new GracePageSizePolicy.Ratio().computePadding(100, 100, 1.5f, 60, 60, padding);
+        assertEquals(60, padding[0]);
+        assertEquals(60, padding[1]);
+    }
+
+    @Test
+    public void fixedWidth_centersPage() {
+        assertPadding(new GracePageSizePolicy.FixedWidth(600), 0, 240, 60);
+    }
+
+    @Test
+    public void fixedWidth_withRatio_centersVertically() {
+        // 页面600x900
+        assertPadding(new GracePageSizePolicy.FixedWidth(600), 1.5f, 240, 510);
+    }
+
+    @Test
+    public void fixedWidth_tooTallForRatio_usesMinVerticalMargin() {
+        // 页面高度2000超过可用高度1800
+        assertPadding(new GracePageSizePolicy.FixedWidth(1000), 2f, 40, 60);
+    }
+
+    @Test
+    public void fixedWidth_clampedToAvailableWidth() {
+        assertPadding(new GracePageSizePolicy.FixedWidth(5000), 0, MARGIN_HORIZONTAL, MARGIN_VERTICAL);
+    }
+
+    @Test
+    public void pagesPerScreen_dividesWidth() {
+        int[] padding = new int[2];
+        new GracePageSizePolicy.PagesPerScreen(3).computePadding(WIDTH, HEIGHT, 0, 0, 0, padding);
+        // 页面宽度360
+        assertEquals(360, padding[0]);
+        assertEquals(0, padding[1]);
+        new GracePageSizePolicy.PagesPerScreen(2.5f).computePadding(WIDTH, HEIGHT, 0, 0, 0, padding);
+        // 页面宽度432
+        assertEquals(324, padding[0]);
+    }
+
+    @Test
+    public void pagesPerScreen_belowOne_treatedAsOne() {
+        assertPadding(new GracePageSizePolicy.PagesPerScreen(0.5f), 0, MARGIN_HORIZONTAL, MARGIN_VERTICAL);
+    }
+
+    @Test
+    public void pagesPerScreen_withRatio() {
+        // 页面宽度540，受可用宽度限制不变，高度810
+        int[] padding = new int[2];
+        new GracePageSizePolicy.PagesPerScreen(2).computePadding(WIDTH, HEIGHT, 1.5f, MARGIN_HORIZONTAL,
+                MARGIN_VERTICAL, padding);
+        assertEquals(270, padding[0]);
+        assertEquals(555, padding[1]);
+    }
+
+    private static void assertPadding(GracePageSizePolicy policy, float ratio, int expectedHorizontal,
+                                      int expectedVertical) {
+        int[] padding = new int[2];
+        policy.computePadding(WIDTH, HEIGHT, ratio, MARGIN_HORIZONTAL, MARGIN_VERTICAL, padding);
+        assertEquals("horizontal", expectedHorizontal, padding[0]);
+        assertEquals("vertical", expectedVertical, padding[1]);
+    }
+}
@@ -0,0 +1,76 @@
+package com.lancewu.graceviewpager.util;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GraceEasingTableTest {
+
+    private static final TimeInterpolator LINEAR = new TimeInterpolator() {
+        @Override
+        public float getInterpolation(float input) {
+            return input;
+        }
+    };
+
+    // 与AccelerateDecelerateInterpolator相同
+    private static final TimeInterpolator ACCELERATE_DECELERATE = new TimeInterpolator() {
+        @Override
+        public float getInterpolation(float input) {
+            return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+        }
+    };
+
+    @Test
+    public void linear_isExact() {
+        GraceEasingTable table = new GraceEasingTable(LINEAR, 4);
+        for (int i = 0; i <= 100; i++) {
+            float input = i / 100f;
+            assertEquals(input, table.getInterpolation(input), 1e-6f);
+        }
+    }
+
+    @Test
+    public void samplePoints_matchInterpolator() {
+        GraceEasingTable table = new GraceEasingTable(ACCELERATE_DECELERATE, 16);
+        for (int i = 0; i <= 16; i++) {
+            float input = i / 16f;
+            assertEquals(ACCELERATE_DECELERATE.getInterpolation(input), table.getInterpolation(input), 1e-6f);
+        }
+    }
+
+    @Test
+    public void defaultSampleCount_closeToInterpolator() {
+        GraceEasingTable table = new GraceEasingTable(ACCELERATE_DECELERATE);
+        for (int i = 0; i <= 1000; i++) {
+            float input = i / 1000f;
+            assertEquals(ACCELERATE_DECELERATE.getInterpolation(input), table.getInterpolation(input), 1e-4f);
+        }
+    }
+
+    @Test
+    public void outOfRange_isClamped() {
+        GraceEasingTable table = new GraceEasingTable(ACCELERATE_DECELERATE);
+        assertEquals(0f, table.getInterpolation(-1f), 1e-6f);
+        assertEquals(1f, table.getInterpolation(2f), 1e-6f);
+        assertEquals(0f, table.getInterpolation(Float.NEGATIVE_INFINITY), 1e-6f);
+        assertEquals(1f, table.getInterpolation(Float.POSITIVE_INFINITY), 1e-6f);
+    }
+
+    @Test
+    public void sampleCountBelowOne_usesOneStep() {
+        GraceEasingTable table = new GraceEasingTable(ACCELERATE_DECELERATE, 0);
+        assertEquals(0f, table.getInterpolation(0f), 1e-6f);
+        assertEquals(0.5f, table.getInterpolation(0.5f), 1e-6f);
+        assertEquals(1f, table.getInterpolation(1f), 1e-6f);
+    }
+
+    @Test
+    public void justBelowOne_staysInRange() {
+        GraceEasingTable table = new GraceEasingTable(LINEAR, 128);
+        float input = Math.nextAfter(1f, 0);
+        assertEquals(input, table.getInterpolation(input), 1e-6f);
+    }
+}
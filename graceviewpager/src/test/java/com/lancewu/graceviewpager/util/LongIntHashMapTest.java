@@ -0,0 +1,128 @@
+package com.lancewu.graceviewpager.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void missingKey_returnsDefault() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(-1, map.get(42, -1));
+        assertFalse(map.containsKey(42));
+        assertEquals(-1, map.remove(42, -1));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void put_overwritesExistingKey() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(7, 1);
+        map.put(7, 2);
+        assertEquals(2, map.get(7, -1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void extremeKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+        long[] keys = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, -(1L << 32)};
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, map.get(keys[i], -1));
+        }
+        assertEquals(keys.length, map.size());
+    }
+
+    @Test
+    public void resize_keepsAllEntries() {
+        // 默认容量16，负载超过0.5时扩容，多次扩容
+        LongIntHashMap map = new LongIntHashMap();
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            map.put(i * 31L, i);
+        }
+        assertEquals(count, map.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, map.get(i * 31L, -1));
+        }
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void ensureCapacity_keepsAllEntries() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        map.put(1, 1);
+        map.put(2, 2);
+        map.ensureCapacity(1000);
+        assertEquals(1, map.get(1, -1));
+        assertEquals(2, map.get(2, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void clear_keepsMapUsable() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(5));
+        map.put(5, 50);
+        assertEquals(50, map.get(5, -1));
+    }
+
+    @Test
+    public void remove_keepsProbeChainIntact() {
+        // 容量为16且不扩容（最多8个），部分key冲突，删除后其余key仍要能查到
+        LongIntHashMap map = new LongIntHashMap();
+        for (int i = 0; i < 8; i++) {
+            map.put(i * 16L, i);
+        }
+        for (int removed = 0; removed < 8; removed++) {
+            assertEquals(removed, map.remove(removed * 16L, -1));
+            assertFalse(map.containsKey(removed * 16L));
+            for (int i = removed + 1; i < 8; i++) {
+                assertEquals(i, map.get(i * 16L, -1));
+            }
+        }
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void randomOperations_matchHashMap() {
+        // key范围小，制造大量冲突以及删除后重新放入
+        Random random = new Random(1);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(512) - 256;
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else if (operation == 1) {
+                Integer value = expected.remove(key);
+                assertEquals(value == null ? -1 : value, map.remove(key, -1));
+            } else {
+                Integer value = expected.get(key);
+                assertEquals(value == null ? -1 : value, map.get(key, -1));
+                assertTrue(map.containsKey(key) == expected.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey(), -1));
+        }
+    }
+}